@@ -0,0 +1,46 @@
+package com.artztall.user_service.changestream;
+
+import com.mongodb.MongoClientSettings;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.ReplaceOptions;
+import lombok.RequiredArgsConstructor;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.Optional;
+
+/**
+ * Persists change stream resume tokens in the {@code change_stream_resume_tokens} collection, one document per stream.
+ */
+@Component
+@RequiredArgsConstructor
+public class ResumeTokenStore {
+
+    static final String COLLECTION = "change_stream_resume_tokens";
+
+    private final MongoTemplate mongoTemplate;
+
+    public Optional<BsonDocument> load(String stream) {
+        Document stored = mongoTemplate.getCollection(COLLECTION).find(Filters.eq("_id", stream)).first();
+        if (stored == null || stored.get("token") == null) {
+            return Optional.empty();
+        }
+        return Optional.of(stored.get("token", Document.class)
+                .toBsonDocument(BsonDocument.class, MongoClientSettings.getDefaultCodecRegistry()));
+    }
+
+    public void save(String stream, BsonDocument token) {
+        mongoTemplate.getCollection(COLLECTION).replaceOne(
+                Filters.eq("_id", stream),
+                new Document("_id", stream).append("token", token).append("updatedAt", new Date()),
+                new ReplaceOptions().upsert(true)
+        );
+    }
+
+    public void clear(String stream) {
+        mongoTemplate.getCollection(COLLECTION).deleteOne(Filters.eq("_id", stream));
+    }
+}
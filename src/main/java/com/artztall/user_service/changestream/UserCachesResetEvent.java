@@ -0,0 +1,8 @@
+package com.artztall.user_service.changestream;
+
+/**
+ * Changes to users may have been missed, e.g. because the change stream could not be resumed;
+ * local caches must drop or rebuild everything they hold.
+ */
+public record UserCachesResetEvent(String reason) {
+}
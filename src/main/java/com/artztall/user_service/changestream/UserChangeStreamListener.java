@@ -0,0 +1,241 @@
+package com.artztall.user_service.changestream;
+
+import com.artztall.user_service.model.Artisan;
+import com.artztall.user_service.model.BaseUser;
+import com.artztall.user_service.model.Buyer;
+import com.artztall.user_service.model.UserType;
+import com.mongodb.MongoCommandException;
+import com.mongodb.MongoException;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tails a change stream over the {@code artisans} and {@code buyers} collections and republishes every change
+ * as a {@link UserChangedEvent}, so per-node caches stay coherent across replicas and with direct edits in Mongo.
+ * <p>
+ * The resume token is persisted through {@link ResumeTokenStore}, so a restarted node continues where it stopped.
+ * When the stream cannot be resumed (the oplog has rolled past the token, or the stream was invalidated)
+ * changes may have been missed, and a {@link UserCachesResetEvent} tells the caches to start over.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "user-cache.change-stream.enabled", havingValue = "true")
+public class UserChangeStreamListener implements SmartLifecycle {
+
+    static final String STREAM_NAME = "users";
+
+    // ChangeStreamHistoryLost and InvalidResumeToken
+    private static final List<Integer> RESUME_FAILURE_CODES = List.of(286, 260);
+
+    // Written on every login flush and on password rehashes, neither of which any cache needs to see
+    static final List<String> IGNORED_UPDATE_FIELDS = List.of("lastLoginDate", "password");
+
+    private final MongoTemplate mongoTemplate;
+    private final ResumeTokenStore resumeTokenStore;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${user-cache.change-stream.token-save-interval-ms:1000}")
+    private long tokenSaveIntervalMs;
+
+    @Value("${user-cache.change-stream.retry-delay-ms:5000}")
+    private long retryDelayMs;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    private volatile boolean running;
+    private Thread worker;
+    private BsonDocument lastSavedToken;
+    private Instant lastSavedAt = Instant.EPOCH;
+
+    @Override
+    public void start() {
+        requireChangeStreamSupport();
+        running = true;
+        Thread.Builder builder = virtualThreads ? Thread.ofVirtual() : Thread.ofPlatform().daemon(true);
+        worker = builder.name("user-change-stream").start(this::run);
+    }
+
+    // A standalone server rejects every attempt to open the stream, which would leave the worker retrying forever
+    void requireChangeStreamSupport() {
+        Document hello = mongoTemplate.executeCommand(new Document("hello", 1));
+        if (hello.get("setName") == null && !"isdbgrid".equals(hello.get("msg"))) {
+            throw new IllegalStateException("user-cache.change-stream.enabled requires MongoDB to run as a replica set"
+                    + " or sharded cluster; set it to false for a standalone server");
+        }
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+            try {
+                worker.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void run() {
+        while (running) {
+            try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = open()) {
+                log.info("Watching artisans and buyers for changes");
+                while (running) {
+                    ChangeStreamDocument<Document> change = cursor.tryNext();
+                    if (change != null) {
+                        handleSafely(change);
+                        if (change.getOperationType() == OperationType.INVALIDATE) {
+                            // The cursor is closed after an invalidate; reopen a fresh stream
+                            break;
+                        }
+                    }
+                    saveToken(cursor.getResumeToken());
+                }
+            } catch (MongoException e) {
+                if (!running) {
+                    return;
+                }
+                if (isResumeFailure(e)) {
+                    log.warn("User change stream could not be resumed, flushing user caches", e);
+                    resetCaches("change stream could not be resumed");
+                } else {
+                    log.error("User change stream failed, retrying in {} ms", retryDelayMs, e);
+                    sleepBeforeRetry();
+                }
+            } catch (RuntimeException e) {
+                // Anything else must not end the worker, or coherence would stop while isRunning() stays true
+                if (!running) {
+                    return;
+                }
+                log.error("User change stream worker failed, reopening in {} ms", retryDelayMs, e);
+                sleepBeforeRetry();
+            }
+        }
+    }
+
+    // An event that cannot be read or delivered is skipped; the caches are flushed since it may be missed
+    void handleSafely(ChangeStreamDocument<Document> change) {
+        try {
+            handle(change);
+        } catch (RuntimeException e) {
+            log.error("Could not process {} change, flushing user caches", change.getOperationTypeString(), e);
+            eventPublisher.publishEvent(new UserCachesResetEvent("unprocessable change event"));
+        }
+    }
+
+    private MongoChangeStreamCursor<ChangeStreamDocument<Document>> open() {
+        ChangeStreamIterable<Document> stream = mongoTemplate.getDb()
+                .watch(List.of(
+                        Aggregates.match(Filters.in("ns.coll", "artisans", "buyers")),
+                        Aggregates.match(Filters.expr(new Document("$not", List.of(onlyIgnoredFieldsUpdated()))))
+                ))
+                .fullDocument(FullDocument.UPDATE_LOOKUP)
+                .maxAwaitTime(1, TimeUnit.SECONDS);
+        resumeTokenStore.load(STREAM_NAME).ifPresent(stream::startAfter);
+        return stream.cursor();
+    }
+
+    // True for updates that only set fields in IGNORED_UPDATE_FIELDS, so they are dropped on the server before
+    // the full document is looked up
+    static Document onlyIgnoredFieldsUpdated() {
+        Document updatedFieldNames = new Document("$map", new Document("input",
+                new Document("$objectToArray", new Document("$ifNull", List.of("$updateDescription.updatedFields", new Document()))))
+                .append("in", "$$this.k"));
+        return new Document("$and", List.of(
+                new Document("$eq", List.of("$operationType", "update")),
+                new Document("$eq", List.of(new Document("$size",
+                        new Document("$ifNull", List.of("$updateDescription.removedFields", List.of()))), 0)),
+                new Document("$setIsSubset", List.of(updatedFieldNames, IGNORED_UPDATE_FIELDS))
+        ));
+    }
+
+    void handle(ChangeStreamDocument<Document> change) {
+        switch (change.getOperationType()) {
+            case INSERT, UPDATE, REPLACE, DELETE -> publishUserChange(change);
+            // Collection-wide changes cannot be mapped to single users
+            case DROP, RENAME, DROP_DATABASE, INVALIDATE -> resetCaches("collection-level " + change.getOperationTypeString());
+            default -> log.debug("Ignoring {} change", change.getOperationTypeString());
+        }
+    }
+
+    private void publishUserChange(ChangeStreamDocument<Document> change) {
+        UserType userType = "artisans".equals(change.getNamespace().getCollectionName()) ? UserType.ARTISAN : UserType.BUYER;
+        String userId = idOf(change.getDocumentKey().get("_id"));
+        Document fullDocument = change.getFullDocument();
+
+        // A missing full document means the user was deleted, possibly after the change itself
+        BaseUser user = null;
+        if (fullDocument != null) {
+            Class<? extends BaseUser> type = userType == UserType.ARTISAN ? Artisan.class : Buyer.class;
+            user = mongoTemplate.getConverter().read(type, fullDocument);
+        }
+        eventPublisher.publishEvent(new UserChangedEvent(userType, userId, user));
+    }
+
+    private void resetCaches(String reason) {
+        resumeTokenStore.clear(STREAM_NAME);
+        lastSavedToken = null;
+        eventPublisher.publishEvent(new UserCachesResetEvent(reason));
+    }
+
+    // Saved at most once per interval; changes replayed after a restart only cause redundant invalidations
+    private void saveToken(BsonDocument token) {
+        if (token == null || token.equals(lastSavedToken)) {
+            return;
+        }
+        Instant now = Instant.now();
+        if (Duration.between(lastSavedAt, now).toMillis() >= tokenSaveIntervalMs) {
+            resumeTokenStore.save(STREAM_NAME, token);
+            lastSavedToken = token;
+            lastSavedAt = now;
+        }
+    }
+
+    private boolean isResumeFailure(MongoException e) {
+        return e instanceof MongoCommandException && RESUME_FAILURE_CODES.contains(e.getCode());
+    }
+
+    private void sleepBeforeRetry() {
+        try {
+            Thread.sleep(retryDelayMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private String idOf(BsonValue id) {
+        if (id.isObjectId()) {
+            return id.asObjectId().getValue().toHexString();
+        }
+        return id.isString() ? id.asString().getValue() : id.toString();
+    }
+}
@@ -0,0 +1,16 @@
+package com.artztall.user_service.changestream;
+
+import com.artztall.user_service.model.BaseUser;
+import com.artztall.user_service.model.UserType;
+
+/**
+ * An artisan or buyer document was written or deleted, on this node or any other.
+ *
+ * @param user the document after the change, or {@code null} when it was deleted
+ */
+public record UserChangedEvent(UserType userType, String userId, BaseUser user) {
+
+    public boolean deleted() {
+        return user == null;
+    }
+}
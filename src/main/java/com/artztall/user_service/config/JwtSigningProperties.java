@@ -0,0 +1,39 @@
+package com.artztall.user_service.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.core.io.Resource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keys used to sign and verify JWTs, bound from {@code jwt.signing.*}.
+ * <p>
+ * With the default {@code HS384} the shared {@code jwt.secret} is used. With {@code RS256} or {@code EdDSA},
+ * tokens are signed with the private key of {@code active-key-id}, and every listed key is accepted for
+ * verification and published at {@code /.well-known/jwks.json}. Rotate by adding the new key, making it active
+ * once other services have picked it up, and removing the old key after the last token it signed has expired.
+ */
+@Data
+@ConfigurationProperties(prefix = "jwt.signing")
+public class JwtSigningProperties {
+
+    private String algorithm = "HS384";
+
+    private String activeKeyId;
+
+    // Keep accepting HS384 tokens without a key id, signed with jwt.secret, while moving to asymmetric keys
+    private boolean acceptLegacyHmac = true;
+
+    private List<Key> keys = new ArrayList<>();
+
+    @Data
+    public static class Key {
+        private String id;
+        // PKCS#8 PEM; only needed for the key that signs
+        private Resource privateKey;
+        // X.509 SubjectPublicKeyInfo PEM
+        private Resource publicKey;
+    }
+}
@@ -0,0 +1,90 @@
+package com.artztall.user_service.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.AfterReturning;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * Domain metrics exported alongside the Boot defaults at {@code /actuator/prometheus}.
+ * <p>
+ * Services annotated with {@link io.micrometer.core.annotation.Timed} are timed per method. Repository calls
+ * ({@code spring.data.repository.invocations}) and Mongo commands ({@code mongodb.driver.commands}) are timed by
+ * Boot itself. Password hashing and wishlist sizes live in code we do not annotate, so they are measured by
+ * {@link DomainMetricsAspect}. All tags are bounded: class, method, operation, exception type.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    @Bean
+    public DomainMetricsAspect domainMetricsAspect(MeterRegistry meterRegistry) {
+        return new DomainMetricsAspect(meterRegistry);
+    }
+
+    @Aspect
+    public static class DomainMetricsAspect {
+
+        private final Timer passwordMatches;
+        private final Timer passwordEncodes;
+        private final DistributionSummary wishlistSize;
+
+        DomainMetricsAspect(MeterRegistry meterRegistry) {
+            passwordMatches = passwordTimer(meterRegistry, "matches");
+            passwordEncodes = passwordTimer(meterRegistry, "encode");
+            wishlistSize = DistributionSummary.builder("wishlist.size")
+                    .description("Items in a buyer's wishlist when the full wishlist is read")
+                    .baseUnit("items")
+                    .publishPercentileHistogram()
+                    .maximumExpectedValue(1000.0)
+                    .register(meterRegistry);
+        }
+
+        private static Timer passwordTimer(MeterRegistry meterRegistry, String operation) {
+            return Timer.builder("auth.password.hashing")
+                    .description("Time spent hashing or verifying passwords")
+                    .tag("operation", operation)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+        }
+
+        // Separates hashing cost from the user lookups that surround it during login
+        @Around("execution(* org.springframework.security.crypto.password.PasswordEncoder.matches(..))")
+        public Object timeMatches(ProceedingJoinPoint joinPoint) throws Throwable {
+            return timed(joinPoint, passwordMatches);
+        }
+
+        @Around("execution(* org.springframework.security.crypto.password.PasswordEncoder.encode(..))")
+        public Object timeEncode(ProceedingJoinPoint joinPoint) throws Throwable {
+            return timed(joinPoint, passwordEncodes);
+        }
+
+        @AfterReturning(
+                pointcut = "execution(* com.artztall.user_service.service.WishlistService.getWishlist(..))",
+                returning = "items")
+        public void recordWishlistSize(List<?> items) {
+            wishlistSize.record(items.size());
+        }
+
+        private static Object timed(ProceedingJoinPoint joinPoint, Timer timer) throws Throwable {
+            Timer.Sample sample = Timer.start();
+            try {
+                return joinPoint.proceed();
+            } finally {
+                sample.stop(timer);
+            }
+        }
+    }
+}
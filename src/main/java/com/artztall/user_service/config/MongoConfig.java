@@ -0,0 +1,71 @@
+package com.artztall.user_service.config;
+
+import com.artztall.user_service.model.Artisan;
+import com.artztall.user_service.model.Buyer;
+import com.artztall.user_service.model.RefreshTokenRecord;
+import com.artztall.user_service.model.TokenRevocation;
+import com.artztall.user_service.model.WishlistEntry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.MongoTransactionManager;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.util.List;
+
+@Slf4j
+@Configuration
+@RequiredArgsConstructor
+public class MongoConfig {
+
+    // Documents whose annotated indexes are created at startup. Automatic index creation is left off
+    // for the legacy collections, whose existing data may not satisfy their declared indexes.
+    private static final List<Class<?>> INDEXED_DOCUMENTS = List.of(
+            WishlistEntry.class,
+            RefreshTokenRecord.class,
+            TokenRevocation.class
+    );
+
+    // Legacy collections only get their non-unique indexes, which cannot fail on existing duplicates
+    private static final List<Class<?>> LEGACY_DOCUMENTS = List.of(
+            Artisan.class,
+            Buyer.class
+    );
+
+    private final MongoTemplate mongoTemplate;
+    private final MongoMappingContext mappingContext;
+
+    // Makes @Transactional span the user collections and the user directory. Only multi-document writes
+    // (signup, deactivation, wishlist batches) are annotated; reads and login run without a transaction
+    @Bean
+    public MongoTransactionManager transactionManager(MongoDatabaseFactory databaseFactory) {
+        return new MongoTransactionManager(databaseFactory);
+    }
+
+    @EventListener(ContextRefreshedEvent.class)
+    public void ensureIndexes() {
+        IndexResolver resolver = new MongoPersistentEntityIndexResolver(mappingContext);
+        for (Class<?> type : INDEXED_DOCUMENTS) {
+            IndexOperations indexOps = mongoTemplate.indexOps(type);
+            resolver.resolveIndexFor(type).forEach(indexOps::ensureIndex);
+            log.debug("Ensured indexes for {}", type.getSimpleName());
+        }
+        for (Class<?> type : LEGACY_DOCUMENTS) {
+            IndexOperations indexOps = mongoTemplate.indexOps(type);
+            resolver.resolveIndexFor(type).forEach(index -> {
+                if (!Boolean.TRUE.equals(index.getIndexOptions().get("unique"))) {
+                    indexOps.ensureIndex(index);
+                }
+            });
+            log.debug("Ensured non-unique indexes for {}", type.getSimpleName());
+        }
+    }
+}
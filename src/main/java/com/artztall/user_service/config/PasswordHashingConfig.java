@@ -0,0 +1,111 @@
+package com.artztall.user_service.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+import java.util.Map;
+
+/**
+ * Password hashing with a configurable algorithm and cost.
+ * <p>
+ * New hashes are written as {@code {id}hash} with the algorithm selected by {@code password.hashing.algorithm}.
+ * Hashes created before the prefix existed are plain BCrypt and still match. Any hash not produced by the
+ * current algorithm and cost is reported by {@link PasswordEncoder#upgradeEncoding}, which makes Spring Security
+ * rehash it on the next successful login.
+ * <p>
+ * Every existing user has such an unprefixed hash, so rehashing all of them would add a full hash and a write to
+ * each user's first login after a deploy and pile onto the hashing pool. Unless
+ * {@code password.hashing.upgrade-legacy} is set, an unprefixed hash is only rehashed when its BCrypt cost is below
+ * {@code password.hashing.bcrypt.strength}; enable the flag to migrate legacy users to another algorithm.
+ */
+@Slf4j
+@Configuration
+public class PasswordHashingConfig {
+
+    static final String BCRYPT = "bcrypt";
+    static final String ARGON2 = "argon2";
+    static final String PBKDF2 = "pbkdf2";
+
+    @Value("${password.hashing.algorithm:bcrypt}")
+    private String algorithm;
+
+    @Value("${password.hashing.bcrypt.strength:10}")
+    private int bcryptStrength;
+
+    @Value("${password.hashing.argon2.memory-kb:19456}")
+    private int argon2MemoryKb;
+
+    @Value("${password.hashing.argon2.iterations:2}")
+    private int argon2Iterations;
+
+    @Value("${password.hashing.argon2.parallelism:1}")
+    private int argon2Parallelism;
+
+    @Value("${password.hashing.pbkdf2.iterations:310000}")
+    private int pbkdf2Iterations;
+
+    @Value("${password.hashing.upgrade-legacy:false}")
+    private boolean upgradeLegacy;
+
+    @Bean
+    public PasswordEncoder passwordEncoder() {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(bcryptStrength);
+        Map<String, PasswordEncoder> encoders = Map.of(
+                BCRYPT, bcrypt,
+                ARGON2, new Argon2PasswordEncoder(16, 32, argon2Parallelism, argon2MemoryKb, argon2Iterations),
+                PBKDF2, new Pbkdf2PasswordEncoder("", 16, pbkdf2Iterations,
+                        Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256)
+        );
+        if (!encoders.containsKey(algorithm)) {
+            throw new IllegalStateException("Unsupported password.hashing.algorithm: " + algorithm);
+        }
+
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(algorithm, encoders);
+        // Hashes stored before prefixes were introduced are unprefixed BCrypt
+        encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        log.info("Hashing new passwords with {}", algorithm);
+        return upgradeLegacy ? encoder : new LegacyBcryptTolerantEncoder(encoder, bcrypt);
+    }
+
+    // Leaves unprefixed BCrypt hashes alone unless they are weaker than the configured BCrypt cost
+    static final class LegacyBcryptTolerantEncoder implements PasswordEncoder {
+
+        private final PasswordEncoder delegate;
+        private final BCryptPasswordEncoder bcrypt;
+
+        LegacyBcryptTolerantEncoder(PasswordEncoder delegate, BCryptPasswordEncoder bcrypt) {
+            this.delegate = delegate;
+            this.bcrypt = bcrypt;
+        }
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return delegate.encode(rawPassword);
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return delegate.matches(rawPassword, encodedPassword);
+        }
+
+        @Override
+        public boolean upgradeEncoding(String encodedPassword) {
+            if (encodedPassword == null || encodedPassword.startsWith("{")) {
+                return delegate.upgradeEncoding(encodedPassword);
+            }
+            try {
+                return bcrypt.upgradeEncoding(encodedPassword);
+            } catch (IllegalArgumentException e) {
+                // Not BCrypt either, so it never matched and there is nothing to upgrade
+                return false;
+            }
+        }
+    }
+}
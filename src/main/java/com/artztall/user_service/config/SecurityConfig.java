@@ -1,23 +1,25 @@
 package com.artztall.user_service.config;
 
+import com.artztall.user_service.security.AccountOwnerOrAdmin;
 import com.artztall.user_service.security.JwtAuthenticationFilter;
 import com.artztall.user_service.security.JwtAuthenticationEntryPoint;
 import com.artztall.user_service.security.JwtTokenProvider;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 import static org.springframework.security.config.Customizer.withDefaults;
 
 @Configuration
@@ -28,6 +30,9 @@ public class SecurityConfig {
     private final JwtAuthenticationEntryPoint jwtAuthenticationEntryPoint;
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
 
+    @Value("${management.server.port:-1}")
+    private int managementPort;
+
     // Updated Swagger UI paths
     private static final String[] SWAGGER_PATHS = {
             "/v3/api-docs/**",
@@ -56,7 +61,13 @@ public class SecurityConfig {
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers(SWAGGER_PATHS).permitAll()
                         .requestMatchers("/api/auth/**").permitAll()
-                        .requestMatchers("/actuator/**").permitAll()
+                        // Metrics and info are only open on the internal management port
+                        .requestMatchers((RequestMatcher) request -> request.getLocalPort() == managementPort).permitAll()
+                        .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
+                        .requestMatchers("/actuator/**").denyAll()
+                        .requestMatchers("/.well-known/**").permitAll()
+                        // Deactivation revokes every token of the account, so only its owner or an admin may do it
+                        .requestMatchers(HttpMethod.PUT, "/api/users/*/{id}/deactivate").access(new AccountOwnerOrAdmin())
                         .requestMatchers("/api/users/**").permitAll()
                         .requestMatchers("/favicon.ico").permitAll()
                         .anyRequest().permitAll()
@@ -70,10 +81,6 @@ public class SecurityConfig {
         return authConfig.getAuthenticationManager();
     }
 
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
-    }
 //
 //    @Bean
 //    public JwtTokenProvider jwtTokenProvider() {
@@ -1,6 +1,8 @@
 package com.artztall.user_service.controller;
 
 import com.artztall.user_service.dto.*;
+import com.artztall.user_service.security.LoginRateLimiter;
+import com.artztall.user_service.security.PasswordHashingExecutor;
 import com.artztall.user_service.service.AuthService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -9,12 +11,16 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/api/auth")
 @RequiredArgsConstructor
@@ -22,6 +28,8 @@ import jakarta.validation.Valid;
 public class AuthController {
 
     private final AuthService authService;
+    private final PasswordHashingExecutor passwordHashingExecutor;
+    private final LoginRateLimiter loginRateLimiter;
 
     @Operation(
             summary = "Register a new user",
@@ -30,11 +38,12 @@ public class AuthController {
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Successfully registered"),
             @ApiResponse(responseCode = "400", description = "Invalid input"),
-            @ApiResponse(responseCode = "409", description = "Email already exists")
+            @ApiResponse(responseCode = "409", description = "Email already exists"),
+            @ApiResponse(responseCode = "503", description = "Too many concurrent authentication requests")
     })
     @PostMapping("/signup")
-    public ResponseEntity<AuthResponse> signup(@Valid @RequestBody SignupRequest request) {
-        return ResponseEntity.ok(authService.signup(request));
+    public CompletableFuture<ResponseEntity<AuthResponse>> signup(@Valid @RequestBody SignupRequest request) {
+        return passwordHashingExecutor.submit(() -> ResponseEntity.ok(authService.signup(request)));
     }
 
     @Operation(
@@ -43,10 +52,49 @@ public class AuthController {
     )
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Successfully authenticated"),
-            @ApiResponse(responseCode = "401", description = "Invalid credentials")
+            @ApiResponse(responseCode = "401", description = "Invalid credentials"),
+            @ApiResponse(responseCode = "429", description = "Too many login attempts for this email or client"),
+            @ApiResponse(responseCode = "503", description = "Too many concurrent authentication requests")
     })
     @PostMapping("/login")
-    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest request) {
-        return ResponseEntity.ok(authService.login(request));
+    public CompletableFuture<ResponseEntity<AuthResponse>> login(@Valid @RequestBody LoginRequest request,
+                                                                 HttpServletRequest servletRequest) {
+        // Throttled attempts are turned away before they take a hashing thread or touch the database
+        loginRateLimiter.acquire(request.getEmail(), servletRequest.getRemoteAddr());
+        return passwordHashingExecutor.submit(() -> ResponseEntity.ok(authService.login(request)));
+    }
+
+    @Operation(
+            summary = "Refresh access token",
+            description = "Exchanges a refresh token for a new access token and a new refresh token. "
+                    + "Each refresh token can be used once; reusing one revokes all of the user's sessions"
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Successfully refreshed"),
+            @ApiResponse(responseCode = "400", description = "Invalid input"),
+            @ApiResponse(responseCode = "401", description = "Refresh token invalid, expired, revoked or already used")
+    })
+    @PostMapping("/refresh")
+    public ResponseEntity<AuthResponse> refresh(@Valid @RequestBody RefreshTokenRequest request) {
+        return ResponseEntity.ok(authService.refresh(request.getRefreshToken()));
+    }
+
+    @Operation(
+            summary = "Log out",
+            description = "Revokes the refresh token and the access token sent in the Authorization header"
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "204", description = "Successfully logged out"),
+            @ApiResponse(responseCode = "400", description = "Invalid input")
+    })
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@Valid @RequestBody RefreshTokenRequest request,
+                                       @Parameter(hidden = true)
+                                       @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        String accessToken = authorization != null && authorization.startsWith("Bearer ")
+                ? authorization.substring(7)
+                : null;
+        authService.logout(request.getRefreshToken(), accessToken);
+        return ResponseEntity.noContent().build();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,41 @@
+package com.artztall.user_service.controller;
+
+import com.artztall.user_service.security.JwtKeyRing;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequiredArgsConstructor
+@Tag(name = "Token Keys", description = "Public keys for verifying tokens issued by this service")
+public class JwksController {
+
+    private final JwtKeyRing keyRing;
+
+    @Value("${jwt.jwks.max-age-seconds:3600}")
+    private long maxAgeSeconds;
+
+    @Operation(
+            summary = "Get token verification keys",
+            description = "Returns the public keys tokens may be signed with as a JSON Web Key Set. "
+                    + "Match a token's kid header against the keys; the set is empty while tokens use a shared secret"
+    )
+    @ApiResponse(responseCode = "200", description = "Successfully retrieved the key set")
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<Map<String, List<Map<String, Object>>>> getJwks() {
+        // A rotated-in key is published before it signs anything, so caches never miss a kid for long
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofSeconds(maxAgeSeconds)).cachePublic())
+                .body(Map.of("keys", keyRing.publicJwks()));
+    }
+}
@@ -0,0 +1,39 @@
+package com.artztall.user_service.controller;
+
+import com.artztall.user_service.service.ReactiveUserReadService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.function.RouterFunction;
+import org.springframework.web.servlet.function.RouterFunctions;
+import org.springframework.web.servlet.function.ServerResponse;
+
+/**
+ * Functional endpoints for the high fan-out reads, served from the reactive repositories.
+ * <p>
+ * They mirror {@code GET /api/users/artisans/{id}}, {@code /buyers/{id}} and {@code /{userId}/wishlist} under
+ * {@code user.reactive-read.base-path}. Handlers return asynchronous responses, so no request thread waits on
+ * Mongo; errors go through {@link com.artztall.user_service.exception.GlobalExceptionHandler} as on the MVC path.
+ */
+@Configuration
+@ConditionalOnProperty(name = "user.reactive-read.enabled", havingValue = "true")
+public class ReactiveUserReadRoutes {
+
+    @Bean
+    public RouterFunction<ServerResponse> reactiveUserReadRouter(
+            ReactiveUserReadService readService,
+            @Value("${user.reactive-read.base-path:/api/reactive/users}") String basePath) {
+        return RouterFunctions.route()
+                .GET(basePath + "/artisans/{id}", request -> ServerResponse.async(
+                        readService.getArtisanById(request.pathVariable("id"))
+                                .map(artisan -> ServerResponse.ok().body(artisan))))
+                .GET(basePath + "/buyers/{id}", request -> ServerResponse.async(
+                        readService.getBuyerById(request.pathVariable("id"))
+                                .map(buyer -> ServerResponse.ok().body(buyer))))
+                .GET(basePath + "/{userId}/wishlist", request -> ServerResponse.async(
+                        readService.getWishlist(request.pathVariable("userId")).collectList()
+                                .map(items -> ServerResponse.ok().body(items))))
+                .build();
+    }
+}
@@ -1,6 +1,7 @@
 package com.artztall.user_service.controller;
 
 import com.artztall.user_service.dto.*;
+import com.artztall.user_service.service.CategoryFacetIndex;
 import com.artztall.user_service.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -12,34 +13,71 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 @RestController
 @RequestMapping("/api/users")
 @RequiredArgsConstructor
 @Tag(name = "Users", description = "User management APIs for both Artisans and Buyers")
 public class UserController {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final UserService userService;
 
     @Operation(
             summary = "Get all artisans",
-            description = "Retrieves a paginated list of all artisans"
+            description = "Retrieves a paginated list of all artisans. Pass fields (e.g. fields=id,name,profilePictureUrl) "
+                    + "to read and return only those properties"
     )
     @ApiResponses({
             @ApiResponse(
                     responseCode = "200",
                     description = "Successfully retrieved artisans",
                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ArtisanDTO.class))
-            )
+            ),
+            @ApiResponse(responseCode = "400", description = "Unknown field requested")
     })
     @GetMapping("/artisans")
-    public ResponseEntity<Page<ArtisanDTO>> getAllArtisans(
-            @Parameter(description = "Pagination parameters") Pageable pageable
+    public ResponseEntity<Page<?>> getAllArtisans(
+            @Parameter(description = "Pagination parameters") Pageable pageable,
+            @Parameter(description = "ArtisanDTO properties to return") @RequestParam(required = false) Set<String> fields
+    ) {
+        if (fields == null || fields.isEmpty()) {
+            return ResponseEntity.ok(userService.getAllArtisans(pageable));
+        }
+        return ResponseEntity.ok(userService.getAllArtisans(pageable, fields));
+    }
+
+    @Operation(
+            summary = "List artisans by cursor",
+            description = "Retrieves one page of artisans ordered by join date without counting the collection. "
+                    + "Pass the returned nextCursor to fetch the following page"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Successfully retrieved artisans",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = CursorPage.class))
+            ),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor")
+    })
+    @GetMapping("/artisans/page")
+    public ResponseEntity<CursorPage<ArtisanDTO>> getArtisansPage(
+            @Parameter(description = "Cursor returned by the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Number of artisans per page (max " + MAX_PAGE_SIZE + ")") @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Sort direction on joinDate") @RequestParam(defaultValue = "ASC") Sort.Direction direction
     ) {
-        return ResponseEntity.ok(userService.getAllArtisans(pageable));
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        return ResponseEntity.ok(userService.getArtisansPage(cursor, pageSize, direction));
     }
 
     @Operation(
@@ -57,6 +95,86 @@ public class UserController {
         return ResponseEntity.ok(userService.getArtisanById(id));
     }
 
+    @Operation(
+            summary = "Search artisans",
+            description = "Filters active artisans by category, rating range, verification status and case-insensitive name "
+                    + "prefix. Results are ordered by average rating, best first; sort parameters are ignored"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Successfully searched artisans",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ArtisanDTO.class))
+            ),
+            @ApiResponse(responseCode = "400", description = "Name search page past the first 1000 results")
+    })
+    @GetMapping("/artisans/search")
+    public ResponseEntity<Page<ArtisanDTO>> searchArtisans(
+            @Parameter(description = "Artwork category") @RequestParam(required = false) String category,
+            @Parameter(description = "Minimum average rating") @RequestParam(required = false) Double minRating,
+            @Parameter(description = "Maximum average rating") @RequestParam(required = false) Double maxRating,
+            @Parameter(description = "Verification status") @RequestParam(required = false) Boolean verified,
+            @Parameter(description = "Name prefix, case-insensitive") @RequestParam(required = false) String name,
+            @Parameter(description = "Pagination parameters") Pageable pageable
+    ) {
+        ArtisanSearchCriteria criteria = new ArtisanSearchCriteria(category, minRating, maxRating, verified, name);
+        Pageable page = PageRequest.of(pageable.getPageNumber(), Math.min(pageable.getPageSize(), MAX_PAGE_SIZE));
+        return ResponseEntity.ok(userService.searchArtisans(criteria, page));
+    }
+
+    @Operation(
+            summary = "Count artisans per category",
+            description = "Returns the number of active artisans in each artwork category, most populated first"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Successfully retrieved category counts",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = CategoryCountDTO.class))
+            )
+    })
+    @GetMapping("/artisans/categories")
+    public ResponseEntity<List<CategoryCountDTO>> getArtisanCategoryCounts() {
+        return ResponseEntity.ok(userService.getArtisanCategoryCounts());
+    }
+
+    @Operation(
+            summary = "Get top artisans in a category",
+            description = "Returns the best active artisans in an artwork category by average rating or by total sales"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Successfully retrieved top artisans",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ArtisanRankDTO.class))
+            )
+    })
+    @GetMapping("/artisans/categories/{category}/top")
+    public ResponseEntity<List<ArtisanRankDTO>> getTopArtisans(
+            @Parameter(description = "Artwork category") @PathVariable String category,
+            @Parameter(description = "Ranking order") @RequestParam(defaultValue = "RATING") CategoryFacetIndex.Ranking by,
+            @Parameter(description = "Number of artisans to return (max " + MAX_PAGE_SIZE + ")") @RequestParam(defaultValue = "10") int limit
+    ) {
+        int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        return ResponseEntity.ok(userService.getTopArtisans(category, by, size));
+    }
+
+    @Operation(
+            summary = "Look up artisans by ID",
+            description = "Resolves many artisans in one call. Every requested ID is present in the response map, "
+                    + "with found=false when no artisan has that ID"
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Successfully resolved artisans"),
+            @ApiResponse(responseCode = "400", description = "No IDs given or too many IDs requested")
+    })
+    @PostMapping("/artisans/lookup")
+    public ResponseEntity<Map<String, UserLookupResult<ArtisanDTO>>> lookupArtisans(
+            @Valid @RequestBody UserLookupRequest request
+    ) {
+        return ResponseEntity.ok(userService.lookupArtisans(request.getIds()));
+    }
+
     @Operation(
             summary = "Update artisan profile",
             description = "Updates an artisan's profile information"
@@ -74,22 +192,68 @@ public class UserController {
         return ResponseEntity.ok(userService.updateArtisan(id, request));
     }
 
+    @Operation(
+            summary = "Deactivate artisan",
+            description = "Marks an artisan account as inactive and revokes its issued tokens"
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Successfully deactivated artisan"),
+            @ApiResponse(responseCode = "401", description = "Not authenticated"),
+            @ApiResponse(responseCode = "403", description = "Neither an admin nor the account owner"),
+            @ApiResponse(responseCode = "404", description = "Artisan not found")
+    })
+    @PutMapping("/artisans/{id}/deactivate")
+    public ResponseEntity<ArtisanDTO> deactivateArtisan(
+            @Parameter(description = "Artisan ID") @PathVariable String id
+    ) {
+        return ResponseEntity.ok(userService.deactivateArtisan(id));
+    }
+
     @Operation(
             summary = "Get all buyers",
-            description = "Retrieves a paginated list of all buyers"
+            description = "Retrieves a paginated list of all buyers. Pass fields (e.g. fields=id,name,profilePictureUrl) "
+                    + "to read and return only those properties"
     )
     @ApiResponses({
             @ApiResponse(
                     responseCode = "200",
                     description = "Successfully retrieved buyers",
                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = BuyerDTO.class))
-            )
+            ),
+            @ApiResponse(responseCode = "400", description = "Unknown field requested")
     })
     @GetMapping("/buyers")
-    public ResponseEntity<Page<BuyerDTO>> getAllBuyers(
-            @Parameter(description = "Pagination parameters") Pageable pageable
+    public ResponseEntity<Page<?>> getAllBuyers(
+            @Parameter(description = "Pagination parameters") Pageable pageable,
+            @Parameter(description = "BuyerDTO properties to return") @RequestParam(required = false) Set<String> fields
+    ) {
+        if (fields == null || fields.isEmpty()) {
+            return ResponseEntity.ok(userService.getAllBuyers(pageable));
+        }
+        return ResponseEntity.ok(userService.getAllBuyers(pageable, fields));
+    }
+
+    @Operation(
+            summary = "List buyers by cursor",
+            description = "Retrieves one page of buyers ordered by join date without counting the collection. "
+                    + "Pass the returned nextCursor to fetch the following page"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Successfully retrieved buyers",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = CursorPage.class))
+            ),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor")
+    })
+    @GetMapping("/buyers/page")
+    public ResponseEntity<CursorPage<BuyerDTO>> getBuyersPage(
+            @Parameter(description = "Cursor returned by the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Number of buyers per page (max " + MAX_PAGE_SIZE + ")") @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Sort direction on joinDate") @RequestParam(defaultValue = "ASC") Sort.Direction direction
     ) {
-        return ResponseEntity.ok(userService.getAllBuyers(pageable));
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        return ResponseEntity.ok(userService.getBuyersPage(cursor, pageSize, direction));
     }
 
     @Operation(
@@ -107,6 +271,22 @@ public class UserController {
         return ResponseEntity.ok(userService.getBuyerById(id));
     }
 
+    @Operation(
+            summary = "Look up buyers by ID",
+            description = "Resolves many buyers in one call. Every requested ID is present in the response map, "
+                    + "with found=false when no buyer has that ID. Wishlists are not included"
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Successfully resolved buyers"),
+            @ApiResponse(responseCode = "400", description = "No IDs given or too many IDs requested")
+    })
+    @PostMapping("/buyers/lookup")
+    public ResponseEntity<Map<String, UserLookupResult<BuyerDTO>>> lookupBuyers(
+            @Valid @RequestBody UserLookupRequest request
+    ) {
+        return ResponseEntity.ok(userService.lookupBuyers(request.getIds()));
+    }
+
     @Operation(
             summary = "Update buyer profile",
             description = "Updates a buyer's profile information"
@@ -124,4 +304,21 @@ public class UserController {
         return ResponseEntity.ok(userService.updateBuyer(id, request));
     }
 
+    @Operation(
+            summary = "Deactivate buyer",
+            description = "Marks a buyer account as inactive and revokes its issued tokens"
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Successfully deactivated buyer"),
+            @ApiResponse(responseCode = "401", description = "Not authenticated"),
+            @ApiResponse(responseCode = "403", description = "Neither an admin nor the account owner"),
+            @ApiResponse(responseCode = "404", description = "Buyer not found")
+    })
+    @PutMapping("/buyers/{id}/deactivate")
+    public ResponseEntity<BuyerDTO> deactivateBuyer(
+            @Parameter(description = "Buyer ID") @PathVariable String id
+    ) {
+        return ResponseEntity.ok(userService.deactivateBuyer(id));
+    }
+
 }
\ No newline at end of file
@@ -1,8 +1,11 @@
 package com.artztall.user_service.controller;
 
-import com.artztall.user_service.dto.BuyerDTO;
+import com.artztall.user_service.dto.CursorPage;
+import com.artztall.user_service.dto.WishlistBatchRequest;
+import com.artztall.user_service.dto.WishlistCountDTO;
+import com.artztall.user_service.dto.WishlistOperationResult;
 import com.artztall.user_service.model.WishListItem;
-import com.artztall.user_service.service.UserService;
+import com.artztall.user_service.service.WishlistService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -10,7 +13,9 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -22,7 +27,9 @@ import java.util.List;
 @Tag(name = "User Wishlist Management", description = "APIs for managing user wishlist operations")
 public class UserWishlistController {
 
-    private final UserService userService;
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final WishlistService wishlistService;
 
     @Operation(
             summary = "Add item to user's wishlist",
@@ -31,8 +38,8 @@ public class UserWishlistController {
     @ApiResponses(value = {
             @ApiResponse(
                     responseCode = "200",
-                    description = "Item successfully added to wishlist",
-                    content = @Content(schema = @Schema(implementation = BuyerDTO.class))
+                    description = "Operation applied; status is ADDED or ALREADY_PRESENT",
+                    content = @Content(schema = @Schema(implementation = WishlistOperationResult.class))
             ),
             @ApiResponse(
                     responseCode = "404",
@@ -46,12 +53,43 @@ public class UserWishlistController {
             )
     })
     @PostMapping("/{userId}/wishlist")
-    public ResponseEntity<BuyerDTO> addToWishlist(
+    public ResponseEntity<WishlistOperationResult> addToWishlist(
             @Parameter(description = "ID of the user", required = true)
             @PathVariable String userId,
             @Parameter(description = "Wishlist item details", required = true)
             @RequestBody WishListItem wishListItem) {
-        return ResponseEntity.ok(userService.addItemToWishlist(userId, wishListItem));
+        return ResponseEntity.ok(wishlistService.addItem(userId, wishListItem));
+    }
+
+    @Operation(
+            summary = "Apply a batch of wishlist changes",
+            description = "Applies many add and remove operations to the user's wishlist in order, atomically, "
+                    + "and reports the outcome of each one (ADDED, ALREADY_PRESENT, REMOVED or NOT_FOUND)."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Batch applied successfully",
+                    content = @Content(schema = @Schema(implementation = WishlistOperationResult.class))
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "User not found",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid request body",
+                    content = @Content
+            )
+    })
+    @PostMapping("/{userId}/wishlist/batch")
+    public ResponseEntity<List<WishlistOperationResult>> applyWishlistBatch(
+            @Parameter(description = "ID of the user", required = true)
+            @PathVariable String userId,
+            @Parameter(description = "Operations to apply, in order", required = true)
+            @Valid @RequestBody WishlistBatchRequest request) {
+        return ResponseEntity.ok(wishlistService.applyBatch(userId, request.getOperations()));
     }
 
     @Operation(
@@ -61,8 +99,8 @@ public class UserWishlistController {
     @ApiResponses(value = {
             @ApiResponse(
                     responseCode = "200",
-                    description = "Item successfully removed from wishlist",
-                    content = @Content(schema = @Schema(implementation = BuyerDTO.class))
+                    description = "Operation applied; status is REMOVED or NOT_FOUND",
+                    content = @Content(schema = @Schema(implementation = WishlistOperationResult.class))
             ),
             @ApiResponse(
                     responseCode = "404",
@@ -71,12 +109,12 @@ public class UserWishlistController {
             )
     })
     @DeleteMapping("/{userId}/wishlist/{productId}")
-    public ResponseEntity<BuyerDTO> removeFromWishlist(
+    public ResponseEntity<WishlistOperationResult> removeFromWishlist(
             @Parameter(description = "ID of the user", required = true)
             @PathVariable String userId,
             @Parameter(description = "ID of the product to remove", required = true)
             @PathVariable String productId) {
-        return ResponseEntity.ok(userService.removeItemFromWishlist(userId, productId));
+        return ResponseEntity.ok(wishlistService.removeItem(userId, productId));
     }
 
     @Operation(
@@ -99,6 +137,89 @@ public class UserWishlistController {
     public ResponseEntity<List<WishListItem>> getWishlist(
             @Parameter(description = "ID of the user", required = true)
             @PathVariable String userId) {
-        return ResponseEntity.ok(userService.getWishlist(userId));
+        return ResponseEntity.ok(wishlistService.getWishlist(userId));
+    }
+
+    @Operation(
+            summary = "Get a page of user's wishlist",
+            description = "Retrieves one page of the user's wishlist ordered by the date items were added. "
+                    + "Pass the returned nextCursor to fetch the following page."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Wishlist page retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = CursorPage.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid cursor",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "User not found",
+                    content = @Content
+            )
+    })
+    @GetMapping("/{userId}/wishlist/page")
+    public ResponseEntity<CursorPage<WishListItem>> getWishlistPage(
+            @Parameter(description = "ID of the user", required = true)
+            @PathVariable String userId,
+            @Parameter(description = "Cursor returned by the previous page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Number of items per page (max " + MAX_PAGE_SIZE + ")")
+            @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Sort direction on addedOn")
+            @RequestParam(defaultValue = "DESC") Sort.Direction direction) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        return ResponseEntity.ok(wishlistService.getWishlistPage(userId, cursor, pageSize, direction));
+    }
+
+    @Operation(
+            summary = "Count buyers who wishlisted a product",
+            description = "Returns how many buyers currently have the product in their wishlist"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Count retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = WishlistCountDTO.class))
+            )
+    })
+    @GetMapping("/wishlist/products/{productId}/count")
+    public ResponseEntity<WishlistCountDTO> getProductWishlistCount(
+            @Parameter(description = "ID of the product", required = true)
+            @PathVariable String productId) {
+        return ResponseEntity.ok(wishlistService.getProductWishlistCount(productId));
+    }
+
+    @Operation(
+            summary = "List buyers who wishlisted a product",
+            description = "Retrieves one page of IDs of buyers that have the product in their wishlist. "
+                    + "Pass the returned nextCursor to fetch the following page."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Buyer IDs retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = CursorPage.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid cursor",
+                    content = @Content
+            )
+    })
+    @GetMapping("/wishlist/products/{productId}/buyers")
+    public ResponseEntity<CursorPage<String>> getBuyersWithProduct(
+            @Parameter(description = "ID of the product", required = true)
+            @PathVariable String productId,
+            @Parameter(description = "Cursor returned by the previous page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Number of buyer IDs per page (max " + MAX_PAGE_SIZE + ")")
+            @RequestParam(defaultValue = "20") int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        return ResponseEntity.ok(wishlistService.getBuyersWithProduct(productId, cursor, pageSize));
     }
-}
\ No newline at end of file
+}
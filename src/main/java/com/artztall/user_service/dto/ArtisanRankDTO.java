@@ -0,0 +1,15 @@
+package com.artztall.user_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ArtisanRankDTO {
+    private String id;
+    private String name;
+    private double averageRating;
+    private int totalSales;
+}
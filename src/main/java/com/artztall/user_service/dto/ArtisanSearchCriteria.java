@@ -0,0 +1,19 @@
+package com.artztall.user_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Artisan search filters; every filter is optional and {@code null} means "any".
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ArtisanSearchCriteria {
+    private String category;
+    private Double minRating;
+    private Double maxRating;
+    private Boolean verified;
+    private String namePrefix;
+}
@@ -8,6 +8,7 @@ import java.util.List;
 @Data
 public class AuthResponse {
     private String token;
+    private String refreshToken;
     private String id;
     private String email;
     private String name;
@@ -0,0 +1,13 @@
+package com.artztall.user_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CategoryCountDTO {
+    private String category;
+    private int count;
+}
@@ -0,0 +1,17 @@
+package com.artztall.user_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CursorPage<T> {
+    private List<T> content;
+    // Opaque token for the next page; null when there are no more results
+    private String nextCursor;
+    private boolean hasNext;
+}
@@ -0,0 +1,12 @@
+package com.artztall.user_service.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class UserLookupRequest {
+    @NotEmpty(message = "At least one id is required")
+    private List<String> ids;
+}
@@ -0,0 +1,21 @@
+package com.artztall.user_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserLookupResult<T> {
+    private boolean found;
+    private T user;
+
+    public static <T> UserLookupResult<T> found(T user) {
+        return new UserLookupResult<>(true, user);
+    }
+
+    public static <T> UserLookupResult<T> notFound() {
+        return new UserLookupResult<>(false, null);
+    }
+}
@@ -0,0 +1,16 @@
+package com.artztall.user_service.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class WishlistBatchRequest {
+    @NotEmpty(message = "At least one operation is required")
+    @Size(max = 200, message = "At most 200 operations are allowed per batch")
+    @Valid
+    private List<WishlistOperation> operations;
+}
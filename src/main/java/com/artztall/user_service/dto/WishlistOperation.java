@@ -0,0 +1,25 @@
+package com.artztall.user_service.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class WishlistOperation {
+    @NotNull(message = "Operation type is required")
+    private Type type;
+
+    @NotBlank(message = "Product ID is required")
+    private String productId;
+
+    // Only used by ADD
+    private String note;
+
+    public enum Type {
+        ADD, REMOVE
+    }
+}
@@ -0,0 +1,18 @@
+package com.artztall.user_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class WishlistOperationResult {
+    private String productId;
+    private WishlistOperation.Type type;
+    private Status status;
+
+    public enum Status {
+        ADDED, ALREADY_PRESENT, REMOVED, NOT_FOUND
+    }
+}
@@ -1,5 +1,6 @@
 package com.artztall.user_service.exception;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -8,6 +9,7 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
 
 @ControllerAdvice
 public class GlobalExceptionHandler {
@@ -21,6 +23,60 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidCursor(InvalidCursorException ex) {
+        ErrorResponse errorResponse = new ErrorResponse();
+        errorResponse.addFieldError("cursor", ex.getMessage());
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(LookupLimitExceededException.class)
+    public ResponseEntity<ErrorResponse> handleLookupLimitExceeded(LookupLimitExceededException ex) {
+        ErrorResponse errorResponse = new ErrorResponse();
+        errorResponse.addFieldError("ids", ex.getMessage());
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(SearchWindowExceededException.class)
+    public ResponseEntity<ErrorResponse> handleSearchWindowExceeded(SearchWindowExceededException ex) {
+        ErrorResponse errorResponse = new ErrorResponse();
+        errorResponse.addFieldError("page", ex.getMessage());
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(InvalidFieldSelectionException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidFieldSelection(InvalidFieldSelectionException ex) {
+        ErrorResponse errorResponse = new ErrorResponse();
+        errorResponse.addFieldError("fields", ex.getMessage());
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(InvalidTokenException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidToken(InvalidTokenException ex) {
+        ErrorResponse errorResponse = new ErrorResponse();
+        errorResponse.addFieldError("refreshToken", ex.getMessage());
+        return new ResponseEntity<>(errorResponse, HttpStatus.UNAUTHORIZED);
+    }
+
+    // The password hashing queue is full; clients should back off briefly
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<ErrorResponse> handleRejectedExecution(RejectedExecutionException ex) {
+        ErrorResponse errorResponse = new ErrorResponse();
+        errorResponse.addFieldError("request", "Too many concurrent authentication requests, retry shortly");
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(errorResponse);
+    }
+
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<ErrorResponse> handleTooManyRequests(TooManyRequestsException ex) {
+        ErrorResponse errorResponse = new ErrorResponse();
+        errorResponse.addFieldError("request", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(errorResponse);
+    }
+
     public static class ErrorResponse {
         private List<FieldError> fieldErrors = new ArrayList<>();
 
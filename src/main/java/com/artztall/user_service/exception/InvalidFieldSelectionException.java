@@ -0,0 +1,7 @@
+package com.artztall.user_service.exception;
+
+public class InvalidFieldSelectionException extends RuntimeException {
+    public InvalidFieldSelectionException(String message) {
+        super(message);
+    }
+}
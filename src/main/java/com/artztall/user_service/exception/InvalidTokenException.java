@@ -0,0 +1,7 @@
+package com.artztall.user_service.exception;
+
+public class InvalidTokenException extends RuntimeException {
+    public InvalidTokenException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.artztall.user_service.exception;
+
+public class LookupLimitExceededException extends RuntimeException {
+    public LookupLimitExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.artztall.user_service.exception;
+
+public class SearchWindowExceededException extends RuntimeException {
+    public SearchWindowExceededException(String message) {
+        super(message);
+    }
+}
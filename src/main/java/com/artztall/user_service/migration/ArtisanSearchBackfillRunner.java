@@ -0,0 +1,29 @@
+package com.artztall.user_service.migration;
+
+import com.artztall.user_service.service.ArtisanSearchService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fills in the lower-cased name used by artisan name-prefix search on artisans created before it existed.
+ * <p>
+ * Run once with {@code --artisan-search.backfill.enabled=true}; the update runs server side in a single command.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "artisan-search.backfill.enabled", havingValue = "true")
+public class ArtisanSearchBackfillRunner implements ApplicationRunner {
+
+    private final ArtisanSearchService artisanSearchService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        log.info("Starting artisan search backfill");
+        artisanSearchService.backfillNameLower();
+    }
+}
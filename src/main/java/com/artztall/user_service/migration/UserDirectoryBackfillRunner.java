@@ -0,0 +1,33 @@
+package com.artztall.user_service.migration;
+
+import com.artztall.user_service.service.UserDirectoryService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Builds the {@code user_directory} collection from the existing admins, artisans and buyers.
+ * <p>
+ * Run once with {@code --user-directory.backfill.enabled=true}; upserts make re-runs safe.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "user-directory.backfill.enabled", havingValue = "true")
+public class UserDirectoryBackfillRunner implements ApplicationRunner {
+
+    private final UserDirectoryService userDirectoryService;
+
+    @Value("${user-directory.backfill.batch-size:500}")
+    private int batchSize;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        log.info("Starting user directory backfill with batch size {}", batchSize);
+        userDirectoryService.backfill(batchSize);
+    }
+}
@@ -0,0 +1,32 @@
+package com.artztall.user_service.migration;
+
+import com.artztall.user_service.service.WishlistService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Moves wishlist items embedded in buyer documents into the {@code wishlist_items} collection.
+ * <p>
+ * Run once with {@code --wishlist.migration.enabled=true}; buyers are streamed, so memory use does not
+ * depend on the size of the collection. The counter repair that follows only applies deltas, so the runner can
+ * execute on a node that is already serving wishlist writes.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "wishlist.migration.enabled", havingValue = "true")
+public class WishlistMigrationRunner implements ApplicationRunner {
+
+    private final WishlistService wishlistService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        log.info("Starting migration of embedded wishlist items");
+        wishlistService.migrateEmbeddedItems();
+        wishlistService.rebuildProductCounts();
+    }
+}
@@ -2,6 +2,8 @@ package com.artztall.user_service.model;
 
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 import java.util.List;
 
@@ -9,10 +11,21 @@ import java.util.List;
 @Data
 @EqualsAndHashCode(callSuper = true)
 @Document(collection = "artisans")
+@CompoundIndexes({
+        @CompoundIndex(name = "join_date_id", def = "{'joinDate': 1, '_id': 1}"),
+        // Search indexes, see ArtisanSearchService; each ends in the (averageRating desc, _id) result order
+        @CompoundIndex(name = "category_rating", def = "{'artworkCategories': 1, 'averageRating': -1, '_id': 1}"),
+        @CompoundIndex(name = "verified_rating", def = "{'isVerified': 1, 'averageRating': -1, '_id': 1}"),
+        @CompoundIndex(name = "rating", def = "{'averageRating': -1, '_id': 1}"),
+        // A prefix is a range, so rating order still needs a sort; see ArtisanSearchService.MAX_NAME_PREFIX_WINDOW
+        @CompoundIndex(name = "name_lower_rating", def = "{'nameLower': 1, 'averageRating': -1, '_id': 1}")
+})
 public class Artisan extends BaseUser {
     private String bio;
     private List<String> artworkCategories;
     private double averageRating;
     private int totalSales;
     private boolean isVerified;
+    // Lower-cased name backing the case-insensitive prefix search; written together with name
+    private String nameLower;
 }
\ No newline at end of file
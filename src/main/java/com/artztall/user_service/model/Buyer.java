@@ -2,15 +2,18 @@ package com.artztall.user_service.model;
 
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 import java.util.List;
 
 @Data
 @EqualsAndHashCode(callSuper = true)
 @Document(collection = "buyers")
+@CompoundIndex(name = "join_date_id", def = "{'joinDate': 1, '_id': 1}")
 public class Buyer extends BaseUser {
     private Address address;
     private List<String> favoriteArtisans;
     private List<String> recentlyViewedProducts;
+    // Legacy embedded wishlist; items now live in wishlist_items and this is only read by the migration
     private List<WishListItem> whishList;
 }
@@ -0,0 +1,21 @@
+package com.artztall.user_service.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Number of buyers that have a product in their wishlist, maintained incrementally by wishlist writes.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Document(collection = "product_wishlist_counts")
+public class ProductWishlistCount {
+    @Id
+    private String productId;
+
+    private long count;
+}
@@ -0,0 +1,29 @@
+package com.artztall.user_service.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * An outstanding refresh token, keyed by its {@code jti}. Deleting the record consumes the token, so each
+ * refresh token can be exchanged once across all nodes; expired records are removed by a TTL index.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Document(collection = "refresh_tokens")
+public class RefreshTokenRecord {
+    @Id
+    private String id;
+
+    @Indexed(name = "user_id")
+    private String userId;
+
+    @Indexed(name = "expires_at_ttl", expireAfter = "0s")
+    private Instant expiresAt;
+}
@@ -0,0 +1,43 @@
+package com.artztall.user_service.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * A revocation shared between nodes: either every token issued to {@code userId} up to {@code revokedAt}, or the
+ * single token {@code tokenId}. Each node polls for records newer than its last poll; a TTL index drops a record
+ * once no token it revokes can still be valid.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Document(collection = "token_revocations")
+public class TokenRevocation {
+    @Id
+    private String id;
+
+    private String userId;
+
+    private String tokenId;
+
+    @Indexed(name = "revoked_at")
+    private Instant revokedAt;
+
+    @Indexed(name = "expires_at_ttl", expireAfter = "0s")
+    private Instant expiresAt;
+
+    // Keyed by user, so revoking a user again moves the existing record forward instead of adding one
+    public static TokenRevocation forUser(String userId, Instant revokedAt, Instant expiresAt) {
+        return new TokenRevocation("user:" + userId, userId, null, revokedAt, expiresAt);
+    }
+
+    public static TokenRevocation forToken(String tokenId, Instant revokedAt, Instant expiresAt) {
+        return new TokenRevocation("token:" + tokenId, null, tokenId, revokedAt, expiresAt);
+    }
+}
@@ -0,0 +1,24 @@
+package com.artztall.user_service.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Maps an email address to the collection and id holding the user, so any user can be resolved
+ * with a single primary-key lookup.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Document(collection = "user_directory")
+public class UserDirectoryEntry {
+    @Id
+    private String email;
+
+    private String userId;
+    private UserType userType;
+    private boolean active;
+}
@@ -0,0 +1,33 @@
+package com.artztall.user_service.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * One wishlisted product of one buyer. {@code buyerId} leads every index and is the shard key.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Document(collection = "wishlist_items")
+@CompoundIndexes({
+        @CompoundIndex(name = "buyer_product_unique", def = "{'buyerId': 1, 'productId': 1}", unique = true),
+        @CompoundIndex(name = "buyer_added_on", def = "{'buyerId': 1, 'addedOn': 1, '_id': 1}"),
+        @CompoundIndex(name = "product_buyer", def = "{'productId': 1, 'buyerId': 1}")
+})
+public class WishlistEntry {
+    @Id
+    private String id;
+
+    private String buyerId;
+    private String productId;
+    private LocalDateTime addedOn;
+    private String note;
+}
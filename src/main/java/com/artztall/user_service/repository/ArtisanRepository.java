@@ -1,6 +1,8 @@
 package com.artztall.user_service.repository;
 
 import com.artztall.user_service.model.Artisan;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
@@ -10,4 +12,6 @@ import java.util.Optional;
 public interface ArtisanRepository extends MongoRepository<Artisan, String> {
     Optional<Artisan> findByEmail(String email);
     boolean existsByEmail(String email);
+    Page<ArtisanView> findAllBy(Pageable pageable);
+    Optional<ArtisanView> findViewById(String id);
 }
\ No newline at end of file
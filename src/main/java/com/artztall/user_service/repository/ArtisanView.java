@@ -0,0 +1,22 @@
+package com.artztall.user_service.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Closed projection of {@link com.artztall.user_service.model.Artisan} holding the fields exposed through
+ * {@link com.artztall.user_service.dto.ArtisanDTO}; only these fields are read from Mongo.
+ */
+public interface ArtisanView {
+    String getId();
+    String getEmail();
+    String getName();
+    String getPhoneNumber();
+    String getProfilePictureUrl();
+    LocalDateTime getJoinDate();
+    String getBio();
+    List<String> getArtworkCategories();
+    double getAverageRating();
+    int getTotalSales();
+    boolean getIsVerified();
+}
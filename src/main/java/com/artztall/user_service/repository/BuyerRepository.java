@@ -1,6 +1,8 @@
 package com.artztall.user_service.repository;
 
 import com.artztall.user_service.model.Buyer;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
@@ -10,4 +12,6 @@ import java.util.Optional;
 public interface BuyerRepository extends MongoRepository<Buyer, String> {
     Optional<Buyer> findByEmail(String email);
     boolean existsByEmail(String email);
+    Page<BuyerView> findAllBy(Pageable pageable);
+    Optional<BuyerView> findViewById(String id);
 }
\ No newline at end of file
@@ -0,0 +1,22 @@
+package com.artztall.user_service.repository;
+
+import com.artztall.user_service.model.Address;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Closed projection of {@link com.artztall.user_service.model.Buyer} holding the fields exposed through
+ * {@link com.artztall.user_service.dto.BuyerDTO}; the password and legacy embedded wishlist are never read.
+ */
+public interface BuyerView {
+    String getId();
+    String getEmail();
+    String getName();
+    String getPhoneNumber();
+    String getProfilePictureUrl();
+    LocalDateTime getJoinDate();
+    Address getAddress();
+    List<String> getFavoriteArtisans();
+    List<String> getRecentlyViewedProducts();
+}
@@ -0,0 +1,9 @@
+package com.artztall.user_service.repository;
+
+import com.artztall.user_service.model.ProductWishlistCount;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ProductWishlistCountRepository extends MongoRepository<ProductWishlistCount, String> {
+}
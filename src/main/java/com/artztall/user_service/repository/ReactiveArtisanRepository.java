@@ -0,0 +1,11 @@
+package com.artztall.user_service.repository;
+
+import com.artztall.user_service.model.Artisan;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface ReactiveArtisanRepository extends ReactiveMongoRepository<Artisan, String> {
+    Mono<ArtisanView> findViewById(String id);
+}
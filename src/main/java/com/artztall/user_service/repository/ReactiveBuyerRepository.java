@@ -0,0 +1,11 @@
+package com.artztall.user_service.repository;
+
+import com.artztall.user_service.model.Buyer;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface ReactiveBuyerRepository extends ReactiveMongoRepository<Buyer, String> {
+    Mono<BuyerView> findViewById(String id);
+}
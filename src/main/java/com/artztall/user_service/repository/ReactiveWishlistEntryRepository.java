@@ -0,0 +1,11 @@
+package com.artztall.user_service.repository;
+
+import com.artztall.user_service.model.WishlistEntry;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+@Repository
+public interface ReactiveWishlistEntryRepository extends ReactiveMongoRepository<WishlistEntry, String> {
+    Flux<WishlistEntry> findByBuyerIdOrderByAddedOnAscIdAsc(String buyerId);
+}
@@ -0,0 +1,10 @@
+package com.artztall.user_service.repository;
+
+import com.artztall.user_service.model.RefreshTokenRecord;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface RefreshTokenRepository extends MongoRepository<RefreshTokenRecord, String> {
+    long deleteByUserId(String userId);
+}
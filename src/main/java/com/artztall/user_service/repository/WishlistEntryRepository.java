@@ -0,0 +1,13 @@
+package com.artztall.user_service.repository;
+
+import com.artztall.user_service.model.WishlistEntry;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface WishlistEntryRepository extends MongoRepository<WishlistEntry, String> {
+    List<WishlistEntry> findByBuyerIdOrderByAddedOnAscIdAsc(String buyerId);
+    long countByBuyerId(String buyerId);
+}
@@ -0,0 +1,40 @@
+package com.artztall.user_service.security;
+
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+
+import java.util.function.Supplier;
+
+/**
+ * Grants a request to admins and to the account named by the {@code id} path variable, whichever way the
+ * principal was built: from trusted token claims or from the loaded user.
+ */
+public class AccountOwnerOrAdmin implements AuthorizationManager<RequestAuthorizationContext> {
+
+    private static final String ADMIN_AUTHORITY = "ROLE_ADMIN";
+
+    @Override
+    public AuthorizationDecision check(Supplier<Authentication> authentication, RequestAuthorizationContext context) {
+        Authentication current = authentication.get();
+        if (current == null || !current.isAuthenticated() || current instanceof AnonymousAuthenticationToken) {
+            return new AuthorizationDecision(false);
+        }
+        boolean admin = current.getAuthorities().stream()
+                .anyMatch(authority -> ADMIN_AUTHORITY.equals(authority.getAuthority()));
+        String accountId = context.getVariables().get("id");
+        return new AuthorizationDecision(admin || (accountId != null && accountId.equals(userId(current.getPrincipal()))));
+    }
+
+    private static String userId(Object principal) {
+        if (principal instanceof JwtPrincipal jwtPrincipal) {
+            return jwtPrincipal.id();
+        }
+        if (principal instanceof UserDetailsImpl userDetails) {
+            return userDetails.user().getId();
+        }
+        return null;
+    }
+}
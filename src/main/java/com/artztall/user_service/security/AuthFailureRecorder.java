@@ -0,0 +1,73 @@
+package com.artztall.user_service.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts rejected bearer tokens by reason and logs a sample of them.
+ * <p>
+ * Bots replaying expired or forged tokens can produce thousands of rejections per second, so every rejection
+ * increments {@code auth.token.failures{reason}} but at most one line per reason is logged per
+ * {@code auth.failure-log.interval-ms}, together with the number of rejections not logged since the last one.
+ */
+@Slf4j
+@Component
+public class AuthFailureRecorder {
+
+    public enum Reason {
+        EXPIRED,
+        MALFORMED,
+        BAD_SIGNATURE,
+        UNSUPPORTED,
+        WRONG_TYPE,
+        EMPTY,
+        INVALID,
+        REVOKED,
+        UNKNOWN_USER
+    }
+
+    private final Map<Reason, Counter> counters = new EnumMap<>(Reason.class);
+    private final Map<Reason, Window> windows = new EnumMap<>(Reason.class);
+
+    @Value("${auth.failure-log.interval-ms:10000}")
+    private long logIntervalMs = 10_000;
+
+    public AuthFailureRecorder(MeterRegistry meterRegistry) {
+        for (Reason reason : Reason.values()) {
+            counters.put(reason, Counter.builder("auth.token.failures")
+                    .description("Bearer tokens rejected, by reason")
+                    .tag("reason", reason.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry));
+            windows.put(reason, new Window());
+        }
+    }
+
+    public void record(Reason reason, String detail) {
+        counters.get(reason).increment();
+
+        Window window = windows.get(reason);
+        long now = System.nanoTime();
+        long last = window.lastLoggedAt.get();
+        if (now - last >= TimeUnit.MILLISECONDS.toNanos(logIntervalMs) && window.lastLoggedAt.compareAndSet(last, now)) {
+            long suppressed = window.suppressed.getAndSet(0);
+            log.warn("Rejected bearer token, reason={} detail=\"{}\" suppressed={}", reason, detail, suppressed);
+        } else {
+            window.suppressed.incrementAndGet();
+        }
+    }
+
+    private static final class Window {
+        // Starts far enough in the past that the first rejection of each reason is logged
+        private final AtomicLong lastLoggedAt = new AtomicLong(System.nanoTime() - TimeUnit.DAYS.toNanos(1));
+        private final AtomicLong suppressed = new AtomicLong();
+    }
+}
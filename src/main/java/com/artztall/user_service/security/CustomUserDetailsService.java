@@ -1,49 +1,148 @@
 package com.artztall.user_service.security;
 
+import com.artztall.user_service.changestream.UserCachesResetEvent;
+import com.artztall.user_service.changestream.UserChangedEvent;
 import com.artztall.user_service.model.BaseUser;
-import com.artztall.user_service.model.Artisan;
-import com.artztall.user_service.model.Buyer;
-import com.artztall.user_service.repository.ArtisanRepository;
-import com.artztall.user_service.repository.BuyerRepository;
-import com.artztall.user_service.repository.UserRepository;
+import com.artztall.user_service.service.UserDirectoryService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
+
+    private final UserDirectoryService userDirectoryService;
+    private final MongoTemplate mongoTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${user-details.cache.max-size:10000}")
+    private long cacheMaxSize;
+
+    @Value("${user-details.cache.ttl-seconds:300}")
+    private long cacheTtlSeconds;
 
-    private final ArtisanRepository artisanRepository;
-    private final BuyerRepository buyerRepository;
+    // Only active users are cached; the TTL bounds how long a missed invalidation can go unnoticed
+    private Cache<String, UserDetailsImpl> userCache;
+
+    // Change events identify users by id; this index holds exactly the users present in userCache
+    private final Map<String, String> emailsByUserId = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void initCache() {
+        userCache = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(cacheTtlSeconds))
+                // Runs synchronously with the eviction, before the same email can be cached again
+                .evictionListener((String email, UserDetailsImpl details, RemovalCause cause) -> unindex(email, details))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, userCache, "userDetails");
+    }
 
     @Override
-    @Transactional(readOnly = true)
+    @Timed(value = "user-details.load", description = "User lookups made by Spring Security during login", histogram = true)
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
+        UserDetailsImpl cached = userCache.getIfPresent(email);
+        if (cached != null) {
+            log.debug("User details cache hit for email: {}", email);
+            return cached;
+        }
+
+        UserDetailsImpl userDetails = loadFromRepositories(email);
+        userCache.put(email, userDetails);
+        emailsByUserId.put(userDetails.user().getId(), email);
+        return userDetails;
+    }
+
+    /**
+     * Stores a rehashed password after a successful login whose hash used an outdated algorithm or cost.
+     * Only the password field is written.
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        BaseUser user = ((UserDetailsImpl) userDetails).user();
+        mongoTemplate.updateFirst(
+                Query.query(where("_id").is(user.getId())),
+                Update.update("password", newPassword),
+                user.getClass()
+        );
+        user.setPassword(newPassword);
+        evict(user.getEmail());
+        log.debug("Upgraded password hash for user: {}", user.getEmail());
+        return new UserDetailsImpl(user);
+    }
+
+    public void evict(String email) {
+        if (email != null) {
+            unindex(email, userCache.asMap().remove(email));
+        }
+    }
+
+    public void evictAll() {
+        userCache.invalidateAll();
+        emailsByUserId.clear();
+    }
+
+    public void evictByUserId(String userId) {
+        String email = emailsByUserId.remove(userId);
+        if (email != null) {
+            userCache.invalidate(email);
+        }
+    }
+
+    private void unindex(String email, UserDetailsImpl details) {
+        if (email != null && details != null) {
+            emailsByUserId.remove(details.user().getId(), email);
+        }
+    }
+
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        evictByUserId(event.userId());
+        if (!event.deleted()) {
+            evict(event.user().getEmail());
+        }
+    }
+
+    @EventListener
+    public void onUserCachesReset(UserCachesResetEvent event) {
+        log.info("Flushing user details cache: {}", event.reason());
+        evictAll();
+    }
+
+    private UserDetailsImpl loadFromRepositories(String email) {
         log.debug("Attempting to load user by email: {}", email);
 
         try {
-            // First try to find an Artisan
-            Optional<Artisan> artisan = artisanRepository.findByEmail(email);
-            if (artisan.isPresent()) {
-                BaseUser user = artisan.get();
-                validateUser(user);
-                return new UserDetailsImpl(user);
-            }
-
-            // Then try to find a Buyer
-            Optional<Buyer> buyer = buyerRepository.findByEmail(email);
-            if (buyer.isPresent()) {
-                BaseUser user = buyer.get();
-                validateUser(user);
-                return new UserDetailsImpl(user);
+            Optional<BaseUser> user = userDirectoryService.findUserByEmail(email);
+            if (user.isPresent()) {
+                validateUser(user.get());
+                return new UserDetailsImpl(user.get());
             }
 
             // If no user is found, throw exception
@@ -65,4 +164,4 @@ public class CustomUserDetailsService implements UserDetailsService {
         }
         log.debug("Successfully loaded user: {}", user.getEmail());
     }
-}
\ No newline at end of file
+}
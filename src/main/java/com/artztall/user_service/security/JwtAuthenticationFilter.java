@@ -8,17 +8,21 @@ import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.Optional;
 
 @Component
@@ -28,11 +32,23 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
 
 
-    private final JwtTokenProvider tokenProvider;
+    // Verifies through JwtTokenProvider on a miss
+    private final VerifiedTokenCache verifiedTokenCache;
 
     @Lazy
     private final UserDetailsService userDetailsService;
 
+    private final TokenRevocationRegistry revocationRegistry;
+
+    private final AuthFailureRecorder failureRecorder;
+
+    // When enabled the principal is rebuilt from the verified claims instead of being reloaded from Mongo
+    @Value("${jwt.trusted-claims.enabled:false}")
+    private boolean trustedClaimsEnabled;
+
+    @Value("${jwt.trusted-claims.check-revocation:true}")
+    private boolean checkRevocation;
+
     @Override
     protected void doFilterInternal(
             @NonNull HttpServletRequest request,
@@ -42,16 +58,27 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = getJwtFromRequest(request);
 
-            if (jwt != null && tokenProvider.validateToken(jwt)) {
-                String username = tokenProvider.getUsernameFromToken(jwt);
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            Optional<JwtPrincipal> principal = jwt != null ? verifiedTokenCache.parseToken(jwt) : Optional.empty();
 
-                UsernamePasswordAuthenticationToken authentication =
-                        new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+            if (principal.isPresent()) {
+                // In-memory check, so revoked users and logged-out tokens are refused without a Mongo lookup
+                if (checkRevocation && revocationRegistry.isRevoked(principal.get())) {
+                    failureRecorder.record(AuthFailureRecorder.Reason.REVOKED, "token " + principal.get().tokenId());
+                    response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+                    return;
+                }
+                UsernamePasswordAuthenticationToken authentication = trustedClaimsEnabled
+                        ? authenticationFromClaims(principal.get())
+                        : authenticationFromUserDetails(principal.get());
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
                 SecurityContextHolder.getContext().setAuthentication(authentication);
             }
+        } catch (UsernameNotFoundException ex) {
+            // Expected for tokens of deleted users; no stack trace needed
+            failureRecorder.record(AuthFailureRecorder.Reason.UNKNOWN_USER, ex.getMessage());
+            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+            return;
         } catch (Exception ex) {
             logger.error("Authentication process failed", ex);
             response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
@@ -59,7 +86,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         filterChain.doFilter(request, response);
-        System.out.println(response.getStatus());
+    }
+
+    private UsernamePasswordAuthenticationToken authenticationFromClaims(JwtPrincipal principal) {
+        List<SimpleGrantedAuthority> authorities = principal.role() != null
+                ? List.of(new SimpleGrantedAuthority(principal.role()))
+                : List.of();
+        return new UsernamePasswordAuthenticationToken(principal, null, authorities);
+    }
+
+    private UsernamePasswordAuthenticationToken authenticationFromUserDetails(JwtPrincipal principal) {
+        UserDetails userDetails = userDetailsService.loadUserByUsername(principal.subject());
+        return new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
     }
 
     private String getJwtFromRequest(HttpServletRequest request) {
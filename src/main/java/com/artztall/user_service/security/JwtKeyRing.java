@@ -0,0 +1,174 @@
+package com.artztall.user_service.security;
+
+import com.artztall.user_service.config.JwtSigningProperties;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.Locator;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureAlgorithm;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Signing key and verification keys for JWTs, loaded once at startup from {@link JwtSigningProperties}.
+ * <p>
+ * Asymmetric tokens carry the {@code kid} of the key that signed them and are verified with that key only.
+ * Tokens without a {@code kid} are HS384 tokens signed with {@code jwt.secret}.
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(JwtSigningProperties.class)
+public class JwtKeyRing {
+
+    static final String HS384 = "HS384";
+    static final String RS256 = "RS256";
+    static final String EDDSA = "EdDSA";
+
+    private final String algorithm;
+    private final SecretKey hmacKey;
+    private final boolean acceptHmac;
+    private final String activeKeyId;
+    private final PrivateKey privateKey;
+    private final SignatureAlgorithm signatureAlgorithm;
+    private final Map<String, PublicKey> verificationKeys;
+
+    public JwtKeyRing(JwtSigningProperties properties, @Value("${jwt.secret}") String jwtSecret) {
+        algorithm = properties.getAlgorithm();
+        hmacKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+
+        if (HS384.equals(algorithm)) {
+            acceptHmac = true;
+            activeKeyId = null;
+            privateKey = null;
+            signatureAlgorithm = null;
+            verificationKeys = Map.of();
+            return;
+        }
+
+        String keyAlgorithm = switch (algorithm) {
+            case RS256 -> "RSA";
+            case EDDSA -> "EdDSA";
+            default -> throw new IllegalStateException("Unsupported jwt.signing.algorithm: " + algorithm);
+        };
+        signatureAlgorithm = RS256.equals(algorithm) ? Jwts.SIG.RS256 : Jwts.SIG.EdDSA;
+        acceptHmac = properties.isAcceptLegacyHmac();
+        activeKeyId = properties.getActiveKeyId();
+
+        Map<String, PublicKey> publicKeys = new LinkedHashMap<>();
+        PrivateKey activePrivateKey = null;
+        for (JwtSigningProperties.Key key : properties.getKeys()) {
+            if (key.getId() == null || key.getPublicKey() == null) {
+                throw new IllegalStateException("Every jwt.signing.keys entry needs an id and a public-key");
+            }
+            publicKeys.put(key.getId(), readPublicKey(keyAlgorithm, key.getPublicKey()));
+            if (key.getId().equals(activeKeyId)) {
+                if (key.getPrivateKey() == null) {
+                    throw new IllegalStateException("Active JWT key " + activeKeyId + " has no private-key");
+                }
+                activePrivateKey = readPrivateKey(keyAlgorithm, key.getPrivateKey());
+            }
+        }
+        if (activePrivateKey == null) {
+            throw new IllegalStateException("jwt.signing.active-key-id does not name a configured key: " + activeKeyId);
+        }
+        privateKey = activePrivateKey;
+        verificationKeys = Collections.unmodifiableMap(publicKeys);
+        log.info("Signing JWTs with {} key {}; {} verification keys loaded", algorithm, activeKeyId, publicKeys.size());
+    }
+
+    /**
+     * Signs the token being built with the active key, adding its {@code kid} for asymmetric keys.
+     */
+    public JwtBuilder sign(JwtBuilder builder) {
+        if (signatureAlgorithm == null) {
+            return builder.signWith(hmacKey, Jwts.SIG.HS384);
+        }
+        return builder.header().keyId(activeKeyId).and()
+                .signWith(privateKey, signatureAlgorithm);
+    }
+
+    /**
+     * Picks the verification key named by the token's {@code kid}; the parser then checks that the key
+     * suits the algorithm in the header, so a public key can never be used as an HMAC secret.
+     */
+    public Locator<Key> keyLocator() {
+        return new LocatorAdapter<>() {
+            @Override
+            protected Key locate(JwsHeader header) {
+                String keyId = header.getKeyId();
+                if (keyId == null) {
+                    if (!acceptHmac) {
+                        throw new UnsupportedJwtException("Token has no key id");
+                    }
+                    return hmacKey;
+                }
+                PublicKey key = verificationKeys.get(keyId);
+                if (key == null) {
+                    throw new UnsupportedJwtException("Unknown key id: " + keyId);
+                }
+                return key;
+            }
+        };
+    }
+
+    /**
+     * @return the public verification keys as JWKs; empty when tokens are signed with the shared secret
+     */
+    public List<Map<String, Object>> publicJwks() {
+        List<Map<String, Object>> jwks = new ArrayList<>();
+        verificationKeys.forEach((keyId, key) -> jwks.add(new LinkedHashMap<>(Jwks.builder()
+                .key(key)
+                .id(keyId)
+                .algorithm(algorithm)
+                .publicKeyUse("sig")
+                .build())));
+        return jwks;
+    }
+
+    private static PublicKey readPublicKey(String keyAlgorithm, Resource pem) {
+        try {
+            return KeyFactory.getInstance(keyAlgorithm).generatePublic(new X509EncodedKeySpec(decodePem(pem)));
+        } catch (GeneralSecurityException | IOException | IllegalArgumentException e) {
+            throw new IllegalStateException("Cannot read JWT public key " + pem.getDescription(), e);
+        }
+    }
+
+    private static PrivateKey readPrivateKey(String keyAlgorithm, Resource pem) {
+        try {
+            return KeyFactory.getInstance(keyAlgorithm).generatePrivate(new PKCS8EncodedKeySpec(decodePem(pem)));
+        } catch (GeneralSecurityException | IOException | IllegalArgumentException e) {
+            throw new IllegalStateException("Cannot read JWT private key " + pem.getDescription(), e);
+        }
+    }
+
+    private static byte[] decodePem(Resource pem) throws IOException {
+        String base64 = pem.getContentAsString(StandardCharsets.US_ASCII)
+                .replaceAll("-----(BEGIN|END) [A-Z ]+-----", "")
+                .replaceAll("\\s", "");
+        return Base64.getDecoder().decode(base64);
+    }
+}
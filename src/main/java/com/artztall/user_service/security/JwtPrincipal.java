@@ -0,0 +1,17 @@
+package com.artztall.user_service.security;
+
+import java.security.Principal;
+import java.time.Instant;
+
+/**
+ * Immutable view of the claims carried by a JWT whose signature has already been verified.
+ * {@code tokenId} is the {@code jti} claim and is null for tokens issued before it was added.
+ */
+public record JwtPrincipal(String subject, String id, String role, Instant issuedAt, Instant expiresAt,
+                           String tokenId) implements Principal {
+
+    @Override
+    public String getName() {
+        return subject;
+    }
+}
@@ -1,120 +1,151 @@
 package com.artztall.user_service.security;
 
 import io.jsonwebtoken.*;
-import io.jsonwebtoken.security.Keys;
 import io.jsonwebtoken.security.SignatureException;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
-import org.springframework.stereotype.Service;
 
-import javax.crypto.SecretKey;
+import java.time.Instant;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
 
 @Slf4j
 @Component
+@RequiredArgsConstructor
 public class JwtTokenProvider {
 
-    @Value("${jwt.secret}")
-    private String jwtSecret;
+    // Access and refresh tokens are signed with the same key; the type claim keeps them apart
+    static final String TOKEN_TYPE_CLAIM = "typ";
+    static final String ACCESS_TOKEN = "access";
+    static final String REFRESH_TOKEN = "refresh";
 
     @Value("${jwt.expiration}")
     private long jwtExpirationInMs;
 
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = jwtSecret.getBytes();
-        return Keys.hmacShaKeyFor(keyBytes);
+    @Value("${jwt.refresh-expiration:1209600000}")
+    private long refreshExpirationInMs;
+
+    private final JwtKeyRing keyRing;
+    private final AuthFailureRecorder failureRecorder;
+
+    // Built once; the parser is immutable and safe to share between threads
+    private JwtParser jwtParser;
+
+    @PostConstruct
+    void init() {
+        jwtParser = Jwts.parser()
+                .keyLocator(keyRing.keyLocator())
+                .build();
     }
 
+    /**
+     * Issues a short-lived access token.
+     */
     public String generateToken(UserDetailsImpl userDetails) {
+        return createToken(userDetails, ACCESS_TOKEN, jwtExpirationInMs).value();
+    }
+
+    /**
+     * Issues a refresh token. Its id is returned alongside so the caller can record it for single use.
+     */
+    public IssuedToken generateRefreshToken(UserDetailsImpl userDetails) {
+        return createToken(userDetails, REFRESH_TOKEN, refreshExpirationInMs);
+    }
+
+    private IssuedToken createToken(UserDetailsImpl userDetails, String type, long lifetimeInMs) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("role", userDetails.getAuthorities().iterator().next().getAuthority());
         claims.put("id", userDetails.user().getId());
-        return createToken(claims, userDetails.getUsername());
-    }
+        claims.put(TOKEN_TYPE_CLAIM, type);
 
-    private String createToken(Map<String, Object> claims, String subject) {
+        String tokenId = UUID.randomUUID().toString();
         Date now = new Date();
-        Date expiryDate = new Date(now.getTime() + jwtExpirationInMs);
-
-        return Jwts.builder()
-                .claims(claims)
-                .subject(subject)
-                .issuedAt(now)
-                .expiration(expiryDate)
-                .signWith(getSigningKey(), Jwts.SIG.HS384)
+        Date expiryDate = new Date(now.getTime() + lifetimeInMs);
+
+        String token = keyRing.sign(Jwts.builder()
+                        .claims(claims)
+                        .id(tokenId)
+                        .subject(userDetails.getUsername())
+                        .issuedAt(now)
+                        .expiration(expiryDate))
                 .compact();
+        return new IssuedToken(token, tokenId, expiryDate.toInstant());
     }
 
-    public String getUsernameFromToken(String token) {
+    /**
+     * Verifies the access token signature and expiry once and returns its claims. Refresh tokens are rejected;
+     * tokens issued before token types existed count as access tokens.
+     *
+     * @return the verified principal, or empty if the token is invalid
+     */
+    public Optional<JwtPrincipal> parseToken(String token) {
+        return parse(token, ACCESS_TOKEN);
+    }
+
+    /**
+     * @return the verified principal of a refresh token, or empty if the token is invalid or not a refresh token
+     */
+    public Optional<JwtPrincipal> parseRefreshToken(String token) {
+        return parse(token, REFRESH_TOKEN);
+    }
+
+    private Optional<JwtPrincipal> parse(String token, String expectedType) {
         try {
-            Claims claims = Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
-            log.debug("Username extracted from token: {}", claims.getSubject());
-            return claims.getSubject();
-        } catch (Exception e) {
-            log.error("Error extracting username from token", e);
-            return null;
+            Claims claims = jwtParser.parseSignedClaims(token).getPayload();
+            String type = claims.get(TOKEN_TYPE_CLAIM, String.class);
+            if (!expectedType.equals(type != null ? type : ACCESS_TOKEN)) {
+                failureRecorder.record(AuthFailureRecorder.Reason.WRONG_TYPE, type + " token where " + expectedType + " expected");
+                return Optional.empty();
+            }
+            return Optional.of(new JwtPrincipal(
+                    claims.getSubject(),
+                    claims.get("id", String.class),
+                    claims.get("role", String.class),
+                    claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null,
+                    claims.getExpiration() != null ? claims.getExpiration().toInstant() : null,
+                    claims.getId()
+            ));
+        } catch (SignatureException e) {
+            failureRecorder.record(AuthFailureRecorder.Reason.BAD_SIGNATURE, e.getMessage());
+        } catch (MalformedJwtException e) {
+            failureRecorder.record(AuthFailureRecorder.Reason.MALFORMED, e.getMessage());
+        } catch (ExpiredJwtException e) {
+            failureRecorder.record(AuthFailureRecorder.Reason.EXPIRED, e.getMessage());
+        } catch (UnsupportedJwtException e) {
+            failureRecorder.record(AuthFailureRecorder.Reason.UNSUPPORTED, e.getMessage());
+        } catch (IllegalArgumentException e) {
+            failureRecorder.record(AuthFailureRecorder.Reason.EMPTY, e.getMessage());
+        } catch (JwtException e) {
+            // e.g. a key that does not match the algorithm in the header
+            failureRecorder.record(AuthFailureRecorder.Reason.INVALID, e.getMessage());
         }
+        return Optional.empty();
+    }
+
+    // The accessors below verify the token again on every call; prefer parseToken once per request
+
+    public String getUsernameFromToken(String token) {
+        return parseToken(token).map(JwtPrincipal::subject).orElse(null);
     }
 
     public String getRoleFromToken(String token) {
-        try {
-            Claims claims = Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
-            String role = claims.get("role", String.class);
-            log.debug("Role extracted from token: {}", role);
-            return role;
-        } catch (Exception e) {
-            log.error("Error extracting role from token", e);
-            return null;
-        }
+        return parseToken(token).map(JwtPrincipal::role).orElse(null);
     }
 
     public String getIdFromToken(String token) {
-        try {
-            Claims claims = Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
-            String id = claims.get("id", String.class);
-            log.debug("ID extracted from token: {}", id);
-            return id;
-        } catch (Exception e) {
-            log.error("Error extracting ID from token", e);
-            return null;
-        }
+        return parseToken(token).map(JwtPrincipal::id).orElse(null);
     }
 
     public boolean validateToken(String token) {
+        return parseToken(token).isPresent();
+    }
 
-        try {
-            Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token);
-            log.debug("Token validation successful");
-            return true;
-        } catch (SignatureException e) {
-            log.error("Invalid JWT signature: {}", e.getMessage());
-        } catch (MalformedJwtException e) {
-            log.error("Invalid JWT token: {}", e.getMessage());
-        } catch (ExpiredJwtException e) {
-            log.error("JWT token is expired: {}", e.getMessage());
-        } catch (UnsupportedJwtException e) {
-            log.error("JWT token is unsupported: {}", e.getMessage());
-        } catch (IllegalArgumentException e) {
-            log.error("JWT claims string is empty: {}", e.getMessage());
-        }
-        return false;
+    public record IssuedToken(String value, String tokenId, Instant expiresAt) {
     }
-}
\ No newline at end of file
+}
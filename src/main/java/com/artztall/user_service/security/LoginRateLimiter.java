@@ -0,0 +1,133 @@
+package com.artztall.user_service.security;
+
+import com.artztall.user_service.exception.TooManyRequestsException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-email and per-client-IP token buckets checked before a login attempt reaches password verification.
+ * <p>
+ * Each bucket is a single {@link AtomicLong} updated by compare-and-set (the GCRA form of a token bucket), so
+ * the happy path takes no locks and allocates nothing once a key is known. Buckets live in a Caffeine cache
+ * bounded by {@code max-keys}: a bucket idle long enough to have refilled expires, and under a flood of distinct
+ * emails or addresses the least valuable buckets are evicted, so every key keeps a bucket of its own.
+ * <p>
+ * The client address is {@link jakarta.servlet.ServletRequest#getRemoteAddr()}, which resolves
+ * {@code X-Forwarded-For} only for requests from trusted proxies ({@code server.tomcat.remoteip.*}).
+ */
+@Component
+public class LoginRateLimiter {
+
+    @Value("${login.rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${login.rate-limit.email.capacity:5}")
+    private int emailCapacity;
+
+    @Value("${login.rate-limit.email.refill-period-ms:60000}")
+    private long emailRefillPeriodMs;
+
+    @Value("${login.rate-limit.ip.capacity:20}")
+    private int ipCapacity;
+
+    @Value("${login.rate-limit.ip.refill-period-ms:60000}")
+    private long ipRefillPeriodMs;
+
+    @Value("${login.rate-limit.max-keys:100000}")
+    private int maxKeys;
+
+    // Must read the same clock as the times passed to acquire
+    Ticker ticker = Ticker.systemTicker();
+
+    private Limiter emailLimiter;
+    private Limiter ipLimiter;
+
+    @PostConstruct
+    void init() {
+        emailLimiter = new Limiter(emailCapacity, TimeUnit.MILLISECONDS.toNanos(emailRefillPeriodMs), maxKeys, ticker);
+        ipLimiter = new Limiter(ipCapacity, TimeUnit.MILLISECONDS.toNanos(ipRefillPeriodMs), maxKeys, ticker);
+    }
+
+    /**
+     * Takes one token from the email's and the client address's buckets.
+     *
+     * @throws TooManyRequestsException when either bucket is empty
+     */
+    public void acquire(String email, String clientIp) {
+        if (!enabled) {
+            return;
+        }
+        acquire(email, clientIp, System.nanoTime());
+    }
+
+    void acquire(String email, String clientIp, long now) {
+        // The address is checked first so a single client cannot drain other users' email buckets
+        long waitNanos = ipLimiter.tryAcquire(clientIp, now);
+        if (waitNanos == 0 && email != null) {
+            waitNanos = emailLimiter.tryAcquire(email.toLowerCase(Locale.ROOT), now);
+        }
+        if (waitNanos > 0) {
+            long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+            throw new TooManyRequestsException("Too many login attempts, retry later", retryAfterSeconds);
+        }
+    }
+
+    // Expiry is applied during cache maintenance, which otherwise only runs when the limiter is used
+    @Scheduled(fixedDelayString = "${login.rate-limit.sweep-interval-ms:60000}")
+    public void evictIdle() {
+        emailLimiter.buckets.cleanUp();
+        ipLimiter.buckets.cleanUp();
+    }
+
+    long trackedKeys() {
+        evictIdle();
+        return emailLimiter.buckets.estimatedSize() + ipLimiter.buckets.estimatedSize();
+    }
+
+    static final class Limiter {
+        private final Cache<String, AtomicLong> buckets;
+        private final long emissionInterval;
+        private final long burstWindow;
+
+        Limiter(int capacity, long refillPeriodNanos, int maxKeys, Ticker ticker) {
+            this.emissionInterval = Math.max(1, refillPeriodNanos / capacity);
+            this.burstWindow = emissionInterval * capacity;
+            this.buckets = Caffeine.newBuilder()
+                    .maximumSize(maxKeys)
+                    // A bucket untouched for a whole burst window has refilled, indistinguishable from a new one
+                    .expireAfterAccess(burstWindow, TimeUnit.NANOSECONDS)
+                    .executor(Runnable::run)
+                    .ticker(ticker)
+                    .build();
+        }
+
+        /**
+         * @return 0 when a token was taken, otherwise the nanoseconds until one is available
+         */
+        long tryAcquire(String key, long now) {
+            AtomicLong bucket = buckets.get(key, k -> new AtomicLong(Long.MIN_VALUE));
+            // The bucket holds the theoretical arrival time of the next request; it is empty when that time
+            // lies more than a full burst window in the future
+            while (true) {
+                long arrival = bucket.get();
+                long next = Math.max(arrival, now) + emissionInterval;
+                long wait = next - now - burstWindow;
+                if (wait > 0) {
+                    return wait;
+                }
+                if (bucket.compareAndSet(arrival, next)) {
+                    return 0;
+                }
+            }
+        }
+    }
+}
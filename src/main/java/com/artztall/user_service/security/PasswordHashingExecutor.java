@@ -0,0 +1,82 @@
+package com.artztall.user_service.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs password-hashing work (signup and login) on a small dedicated pool instead of servlet threads, so a
+ * login burst queues here rather than exhausting the Tomcat pool. The queue is bounded: when it is full,
+ * {@link #submit} throws {@link java.util.concurrent.RejectedExecutionException}, reported to clients as 503.
+ * <p>
+ * Pool and queue metrics are published under {@code executor.*} with {@code name=passwordHashing}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PasswordHashingExecutor {
+
+    private final MeterRegistry meterRegistry;
+
+    // 0 sizes the pool to the number of available processors, since hashing is CPU bound
+    @Value("${password.hashing.threads:0}")
+    private int threads;
+
+    @Value("${password.hashing.queue-capacity:200}")
+    private int queueCapacity;
+
+    // The pool size still bounds concurrent hashing when its threads are virtual
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    void init() {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory(virtualThreads), new ThreadPoolExecutor.AbortPolicy());
+        executor = ExecutorServiceMetrics.monitor(meterRegistry, pool, "passwordHashing");
+        log.info("Password hashing executor started with {} threads and a queue of {}", poolSize, queueCapacity);
+    }
+
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        return CompletableFuture.supplyAsync(task, executor);
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+            List<Runnable> dropped = executor.shutdownNow();
+            log.warn("Dropped {} queued password hashing tasks on shutdown", dropped.size());
+        }
+    }
+
+    private static ThreadFactory threadFactory(boolean virtual) {
+        if (virtual) {
+            return Thread.ofVirtual().name("password-hashing-", 1).factory();
+        }
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "password-hashing-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,143 @@
+package com.artztall.user_service.security;
+
+import com.artztall.user_service.changestream.UserChangedEvent;
+import com.artztall.user_service.model.TokenRevocation;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Tracks tokens that must no longer be honoured: every token issued to a user before a point in time
+ * (e.g. after deactivation), and single tokens by their {@code jti} (e.g. after logout).
+ * <p>
+ * Both lookups are a single hash probe, cheap enough for every request. An entry only has to outlive the
+ * tokens it revokes, so user entries older than the refresh token lifetime and token entries past their
+ * token's expiry are swept periodically.
+ * <p>
+ * The {@code iat} claim only has second precision, so user revocations are recorded in whole seconds and
+ * reject tokens issued in an earlier second. A token issued in the same second as the revocation, such as the
+ * refresh right after a reuse detection, stays valid.
+ * <p>
+ * Revocations are also written to the {@code token_revocations} collection, which every node polls, so a
+ * logout or reuse detection on one node is enforced by all of them within a poll interval. Each poll re-reads
+ * an overlap window before the previous one to pick up records stamped by nodes whose clocks run behind.
+ */
+@Slf4j
+@Component
+public class TokenRevocationRegistry {
+
+    private final Map<String, Instant> revokedUsers = new ConcurrentHashMap<>();
+
+    // jti -> expiry of the revoked token
+    private final Map<String, Instant> revokedTokens = new ConcurrentHashMap<>();
+
+    // null when revocations stay on this node only
+    private final MongoTemplate mongoTemplate;
+
+    private volatile Instant lastPoll = Instant.EPOCH;
+
+    @Value("${jwt.refresh-expiration:1209600000}")
+    private long refreshExpirationInMs;
+
+    @Value("${jwt.revocation.poll-overlap-ms:30000}")
+    private long pollOverlapMs;
+
+    public TokenRevocationRegistry() {
+        this(null);
+    }
+
+    @Autowired
+    public TokenRevocationRegistry(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    public void revokeUser(String userId) {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        revokeUserLocally(userId, now);
+        if (mongoTemplate != null) {
+            mongoTemplate.save(TokenRevocation.forUser(userId, now, now.plusMillis(refreshExpirationInMs)));
+        }
+        log.debug("Revoked tokens issued to user {} before {}", userId, now);
+    }
+
+    public void revokeToken(String tokenId, Instant expiresAt) {
+        if (tokenId != null && expiresAt != null && expiresAt.isAfter(Instant.now())) {
+            revokedTokens.put(tokenId, expiresAt);
+            if (mongoTemplate != null) {
+                mongoTemplate.save(TokenRevocation.forToken(tokenId, Instant.now(), expiresAt));
+            }
+        }
+    }
+
+    // Every node sees the change itself, so there is nothing to share
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        if (!event.deleted() && !event.user().isActive()) {
+            revokeUserLocally(event.userId(), Instant.now().truncatedTo(ChronoUnit.SECONDS));
+        }
+    }
+
+    public boolean isRevoked(JwtPrincipal principal) {
+        if (principal.tokenId() != null && revokedTokens.containsKey(principal.tokenId())) {
+            return true;
+        }
+        if (principal.id() == null) {
+            return false;
+        }
+        Instant revokedAt = revokedUsers.get(principal.id());
+        return revokedAt != null
+                && (principal.issuedAt() == null
+                || principal.issuedAt().truncatedTo(ChronoUnit.SECONDS).isBefore(revokedAt));
+    }
+
+    /**
+     * Applies revocations recorded by any node since the previous poll. Applying a record twice is harmless,
+     * and a user keeps the latest of the revocation times seen.
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.poll-interval-ms:2000}")
+    public void pollShared() {
+        if (mongoTemplate == null) {
+            return;
+        }
+        Instant startedAt = Instant.now();
+        Query query = new Query(where("revokedAt").gte(lastPoll.minusMillis(pollOverlapMs)));
+        try {
+            for (TokenRevocation revocation : mongoTemplate.find(query, TokenRevocation.class)) {
+                if (revocation.getTokenId() != null && revocation.getExpiresAt().isAfter(startedAt)) {
+                    revokedTokens.put(revocation.getTokenId(), revocation.getExpiresAt());
+                } else if (revocation.getUserId() != null) {
+                    revokeUserLocally(revocation.getUserId(), revocation.getRevokedAt());
+                }
+            }
+            lastPoll = startedAt;
+        } catch (DataAccessException e) {
+            log.warn("Could not load shared token revocations: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.sweep-interval-ms:60000}")
+    public void sweepExpired() {
+        Instant now = Instant.now();
+        Instant horizon = now.minusMillis(refreshExpirationInMs);
+        revokedUsers.values().removeIf(revokedAt -> revokedAt.isBefore(horizon));
+        revokedTokens.values().removeIf(expiresAt -> !expiresAt.isAfter(now));
+    }
+
+    private void revokeUserLocally(String userId, Instant revokedAt) {
+        revokedUsers.merge(userId, revokedAt.truncatedTo(ChronoUnit.SECONDS),
+                (current, added) -> added.isAfter(current) ? added : current);
+    }
+}
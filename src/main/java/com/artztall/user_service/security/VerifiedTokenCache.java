@@ -0,0 +1,143 @@
+package com.artztall.user_service.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Remembers the claims of bearer tokens that already passed signature verification, so a client resending
+ * the same token skips decoding, parsing and signature checks.
+ * <p>
+ * Entries are keyed by the SHA-256 digest of the token, never the token itself, and digests are compared in
+ * constant time. Each entry expires exactly when its token does. Only successfully verified tokens are
+ * cached; revocation is still checked by the caller on every request.
+ */
+@Component
+@RequiredArgsConstructor
+public class VerifiedTokenCache {
+
+    private final JwtTokenProvider tokenProvider;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${jwt.verified-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${jwt.verified-cache.max-size:10000}")
+    private long maxSize;
+
+    private Cache<TokenDigest, JwtPrincipal> cache;
+    private Timer validVerifications;
+    private Timer invalidVerifications;
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<TokenDigest, JwtPrincipal>() {
+                    @Override
+                    public long expireAfterCreate(TokenDigest key, JwtPrincipal principal, long currentTime) {
+                        return Math.max(0, Duration.between(Instant.now(), principal.expiresAt()).toNanos());
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(TokenDigest key, JwtPrincipal principal, long currentTime,
+                                                  long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(TokenDigest key, JwtPrincipal principal, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwtVerifiedTokens");
+        Gauge.builder("jwt.verified.cache.hit.ratio", cache, c -> c.stats().hitRate())
+                .description("Share of bearer token lookups answered without signature verification")
+                .register(meterRegistry);
+        validVerifications = verificationTimer("valid");
+        invalidVerifications = verificationTimer("invalid");
+    }
+
+    private Timer verificationTimer(String result) {
+        return Timer.builder("jwt.verify")
+                .description("Bearer token decoding and signature verification on cache misses")
+                .tag("result", result)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * Same contract as {@link JwtTokenProvider#parseToken(String)}, served from the cache when possible.
+     */
+    public Optional<JwtPrincipal> parseToken(String token) {
+        if (!enabled) {
+            return verify(token);
+        }
+        TokenDigest digest = TokenDigest.of(token);
+        JwtPrincipal cached = cache.getIfPresent(digest);
+        if (cached != null && cached.expiresAt().isAfter(Instant.now())) {
+            return Optional.of(cached);
+        }
+
+        Optional<JwtPrincipal> principal = verify(token);
+        // Tokens without an expiry would never leave the cache, so they are verified every time
+        principal.filter(p -> p.expiresAt() != null).ifPresent(p -> cache.put(digest, p));
+        return principal;
+    }
+
+    private Optional<JwtPrincipal> verify(String token) {
+        long start = System.nanoTime();
+        Optional<JwtPrincipal> principal = tokenProvider.parseToken(token);
+        (principal.isPresent() ? validVerifications : invalidVerifications)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return principal;
+    }
+
+    private static final class TokenDigest {
+        private final byte[] digest;
+        private final int hash;
+
+        private TokenDigest(byte[] digest) {
+            this.digest = digest;
+            this.hash = ByteBuffer.wrap(digest).getInt();
+        }
+
+        static TokenDigest of(String token) {
+            try {
+                return new TokenDigest(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8)));
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 is not available", e);
+            }
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof TokenDigest that && MessageDigest.isEqual(digest, that.digest);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.artztall.user_service.service;
+
+import com.artztall.user_service.dto.ArtisanSearchCriteria;
+import com.artztall.user_service.exception.SearchWindowExceededException;
+import com.artztall.user_service.model.Artisan;
+import com.artztall.user_service.repository.ArtisanView;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.StringOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Filters artisans by category, rating range, verification and name prefix.
+ * <p>
+ * Every query is pinned with a hint to one of the compound indexes declared on {@link Artisan}, chosen from
+ * the most selective filter present, so a search never degrades into a collection scan. Results are ordered
+ * by rating, best first, and only active artisans are returned.
+ * <p>
+ * A name prefix matches a range of {@code nameLower} values, so its results cannot be read in rating order from
+ * the index and Mongo sorts them. With a limit that sort only keeps {@code skip + limit} documents, so name
+ * searches are capped at {@link #MAX_NAME_PREFIX_WINDOW} results deep.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ArtisanSearchService {
+
+    static final String CATEGORY_RATING_INDEX = "category_rating";
+    static final String NAME_LOWER_INDEX = "name_lower_rating";
+    static final String VERIFIED_RATING_INDEX = "verified_rating";
+    static final String RATING_INDEX = "rating";
+
+    static final int MAX_NAME_PREFIX_WINDOW = 1000;
+
+    private static final Sort RESULT_ORDER = Sort.by(Sort.Order.desc("averageRating"), Sort.Order.asc("_id"));
+
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * @throws SearchWindowExceededException if a name prefix search asks for results past {@link #MAX_NAME_PREFIX_WINDOW}
+     */
+    public Page<ArtisanView> search(ArtisanSearchCriteria criteria, Pageable pageable) {
+        if (hasNamePrefix(criteria) && pageable.getOffset() + pageable.getPageSize() > MAX_NAME_PREFIX_WINDOW) {
+            throw new SearchWindowExceededException("Name searches are limited to the first "
+                    + MAX_NAME_PREFIX_WINDOW + " results; narrow the prefix instead");
+        }
+        // Results always come back in index order, so only the page position is taken from the pageable
+        Query query = buildQuery(criteria)
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize());
+        List<ArtisanView> artisans = mongoTemplate.query(Artisan.class)
+                .as(ArtisanView.class)
+                .matching(query)
+                .all();
+        return PageableExecutionUtils.getPage(artisans, pageable,
+                () -> mongoTemplate.count(Query.of(query).limit(-1).skip(-1), Artisan.class));
+    }
+
+    /**
+     * Builds the filter, result order and index hint for a search, without paging.
+     */
+    public static Query buildQuery(ArtisanSearchCriteria criteria) {
+        Criteria filter = where("isActive").is(true);
+        if (criteria.getCategory() != null) {
+            filter.and("artworkCategories").is(criteria.getCategory());
+        }
+        if (criteria.getMinRating() != null || criteria.getMaxRating() != null) {
+            Criteria rating = filter.and("averageRating");
+            if (criteria.getMinRating() != null) {
+                rating.gte(criteria.getMinRating());
+            }
+            if (criteria.getMaxRating() != null) {
+                rating.lte(criteria.getMaxRating());
+            }
+        }
+        if (criteria.getVerified() != null) {
+            filter.and("isVerified").is(criteria.getVerified());
+        }
+        if (hasNamePrefix(criteria)) {
+            // An anchored, case-sensitive regex on the lower-cased copy becomes an index range scan
+            filter.and("nameLower").regex("^" + Pattern.quote(normalizeName(criteria.getNamePrefix().strip())));
+        }
+
+        return Query.query(filter)
+                .with(RESULT_ORDER)
+                .withHint(chooseIndex(criteria));
+    }
+
+    public static String normalizeName(String name) {
+        return name == null ? null : name.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Sets {@code nameLower} on artisans written before it existed.
+     *
+     * @return the number of artisans updated
+     */
+    public long backfillNameLower() {
+        long updated = mongoTemplate.updateMulti(
+                Query.query(where("nameLower").exists(false).and("name").exists(true)),
+                AggregationUpdate.update().set("nameLower").toValue(StringOperators.valueOf("name").toLower()),
+                Artisan.class
+        ).getModifiedCount();
+        log.info("Backfilled nameLower on {} artisans", updated);
+        return updated;
+    }
+
+    private static String chooseIndex(ArtisanSearchCriteria criteria) {
+        if (criteria.getCategory() != null) {
+            return CATEGORY_RATING_INDEX;
+        }
+        if (hasNamePrefix(criteria)) {
+            return NAME_LOWER_INDEX;
+        }
+        if (criteria.getVerified() != null) {
+            return VERIFIED_RATING_INDEX;
+        }
+        return RATING_INDEX;
+    }
+
+    private static boolean hasNamePrefix(ArtisanSearchCriteria criteria) {
+        return criteria.getNamePrefix() != null && !criteria.getNamePrefix().isBlank();
+    }
+}
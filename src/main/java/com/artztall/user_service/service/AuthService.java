@@ -3,6 +3,7 @@ package com.artztall.user_service.service;
 import com.artztall.user_service.dto.AuthResponse;
 import com.artztall.user_service.dto.LoginRequest;
 import com.artztall.user_service.dto.SignupRequest;
+import com.artztall.user_service.exception.InvalidTokenException;
 import com.artztall.user_service.exception.UserAlreadyExistsException;
 import com.artztall.user_service.exception.UserNotFoundException;
 import com.artztall.user_service.model.BaseUser;
@@ -12,9 +13,13 @@ import com.artztall.user_service.model.UserType;
 import com.artztall.user_service.repository.ArtisanRepository;
 import com.artztall.user_service.repository.BuyerRepository;
 import com.artztall.user_service.repository.UserRepository;
+import com.artztall.user_service.security.JwtPrincipal;
 import com.artztall.user_service.security.JwtTokenProvider;
+import com.artztall.user_service.security.TokenRevocationRegistry;
 import com.artztall.user_service.security.UserDetailsImpl;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -25,10 +30,10 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
+@Timed(value = "auth.service", description = "AuthService calls by method and exception", histogram = true)
 public class AuthService {
 
     private final UserRepository userRepository;
@@ -37,30 +42,38 @@ public class AuthService {
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authenticationManager;
     private final JwtTokenProvider tokenProvider;
+    private final UserDirectoryService userDirectoryService;
+    private final CategoryFacetIndex categoryFacetIndex;
+    private final LastLoginRecorder lastLoginRecorder;
+    private final RefreshTokenService refreshTokenService;
+    private final TokenRevocationRegistry revocationRegistry;
 
     @Transactional
     public AuthResponse signup(SignupRequest request) {
         validateSignupRequest(request);
 
         // Check if user exists in any repository
-        if (isEmailTaken(request.getEmail())) {
+        if (userDirectoryService.isEmailTaken(request.getEmail())) {
             throw new UserAlreadyExistsException("Email is already taken: " + request.getEmail());
         }
 
         BaseUser user = createUserByType(request);
         setCommonUserProperties(user, request);
         user = saveUser(user);
+        try {
+            userDirectoryService.register(user);
+        } catch (DuplicateKeyException e) {
+            // A concurrent signup registered the email after the check above; the transaction rolls back
+            throw new UserAlreadyExistsException("Email is already taken: " + request.getEmail());
+        }
+        if (user instanceof Artisan artisan) {
+            categoryFacetIndex.upsert(artisan);
+        }
 
         UserDetailsImpl userDetails = new UserDetailsImpl(user);
         String token = tokenProvider.generateToken(userDetails);
 
-        return createAuthResponse(user, token);
-    }
-
-    private boolean isEmailTaken(String email) {
-        return userRepository.existsByEmail(email) ||
-                artisanRepository.existsByEmail(email) ||
-                buyerRepository.existsByEmail(email);
+        return createAuthResponse(user, token, refreshTokenService.issue(userDetails));
     }
 
     private void validateSignupRequest(SignupRequest request) {
@@ -96,7 +109,6 @@ public class AuthService {
         };
     }
 
-    @Transactional
     public AuthResponse login(LoginRequest request) {
         validateLoginRequest(request);
 
@@ -105,19 +117,45 @@ public class AuthService {
                     new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword())
             );
 
+            // authenticate() already loaded the user; looking it up again would repeat the directory round trips
             UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
-            BaseUser user = findUserByEmail(request.getEmail())
-                    .orElseThrow(() -> new UserNotFoundException("User not found with email: " + request.getEmail()));
+            BaseUser user = userDetails.user();
 
-            updateLastLoginDate(user);
+            lastLoginRecorder.record(user);
             String token = tokenProvider.generateToken(userDetails);
 
-            return createAuthResponse(user, token);
+            return createAuthResponse(user, token, refreshTokenService.issue(userDetails));
         } catch (BadCredentialsException e) {
             throw new UserNotFoundException("Invalid email or password");
         }
     }
 
+    /**
+     * Exchanges a refresh token for a new access token and a new refresh token; the old one cannot be used again.
+     */
+    public AuthResponse refresh(String refreshToken) {
+        JwtPrincipal principal = refreshTokenService.consume(refreshToken);
+        BaseUser user = userDirectoryService.findUserByEmail(principal.subject())
+                .filter(BaseUser::isActive)
+                .orElseThrow(() -> new InvalidTokenException("Refresh token has been revoked"));
+
+        UserDetailsImpl userDetails = new UserDetailsImpl(user);
+        String token = tokenProvider.generateToken(userDetails);
+
+        return createAuthResponse(user, token, refreshTokenService.issue(userDetails));
+    }
+
+    /**
+     * Drops the refresh token and, when given, revokes the access token on every node until it expires.
+     */
+    public void logout(String refreshToken, String accessToken) {
+        refreshTokenService.revoke(refreshToken);
+        if (accessToken != null) {
+            tokenProvider.parseToken(accessToken)
+                    .ifPresent(principal -> revocationRegistry.revokeToken(principal.tokenId(), principal.expiresAt()));
+        }
+    }
+
     private void validateLoginRequest(LoginRequest request) {
         if (request.getEmail() == null || request.getEmail().trim().isEmpty()) {
             throw new IllegalArgumentException("Email cannot be empty");
@@ -127,11 +165,6 @@ public class AuthService {
         }
     }
 
-    private void updateLastLoginDate(BaseUser user) {
-        user.setLastLoginDate(LocalDateTime.now());
-        saveUser(user);
-    }
-
     private Artisan createArtisan(SignupRequest request) {
         Artisan artisan = new Artisan();
         artisan.setBio(request.getBio());
@@ -139,6 +172,7 @@ public class AuthService {
         artisan.setAverageRating(0.0);
         artisan.setTotalSales(0);
         artisan.setVerified(false);
+        artisan.setNameLower(ArtisanSearchService.normalizeName(request.getName()));
         return artisan;
     }
 
@@ -162,18 +196,10 @@ public class AuthService {
         user.setActive(true);
     }
 
-    private Optional<BaseUser> findUserByEmail(String email) {
-        Optional<Artisan> artisan = artisanRepository.findByEmail(email);
-        if (artisan.isPresent()) {
-            return Optional.of(artisan.get());
-        }
-
-        return buyerRepository.findByEmail(email).map(buyer -> buyer);
-    }
-
-    private AuthResponse createAuthResponse(BaseUser user, String token) {
+    private AuthResponse createAuthResponse(BaseUser user, String token, String refreshToken) {
         AuthResponse response = new AuthResponse();
         response.setToken(token);
+        response.setRefreshToken(refreshToken);
         response.setId(user.getId());
         response.setEmail(user.getEmail());
         response.setName(user.getName());
@@ -0,0 +1,265 @@
+package com.artztall.user_service.service;
+
+import com.artztall.user_service.changestream.UserCachesResetEvent;
+import com.artztall.user_service.changestream.UserChangedEvent;
+import com.artztall.user_service.dto.ArtisanRankDTO;
+import com.artztall.user_service.dto.CategoryCountDTO;
+import com.artztall.user_service.model.Artisan;
+import com.artztall.user_service.model.UserType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * In-memory facets over active artisans: the number of artisans per artwork category and each category's
+ * artisans ranked by rating or by sales.
+ * <p>
+ * Categories are interned to dense int ids, so per-artisan state is an {@code int[]} and counts live in a
+ * single array. Each category's rankings are sorted sets, so a rating or sales change costs O(log n) instead
+ * of shifting a sorted array. The index is built by streaming the artisans collection once the application is ready and
+ * is kept current by the signup, update and deactivation paths, and by {@link UserChangedEvent}s for
+ * changes made on other nodes.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CategoryFacetIndex {
+
+    public enum Ranking {
+        RATING, SALES
+    }
+
+    private static final Comparator<Entry> RATING_ORDER = Comparator
+            .comparingDouble(Entry::averageRating).reversed()
+            .thenComparing(Comparator.comparingInt(Entry::totalSales).reversed())
+            .thenComparing(Entry::artisanId);
+    private static final Comparator<Entry> SALES_ORDER = Comparator
+            .comparingInt(Entry::totalSales).reversed()
+            .thenComparing(Comparator.comparingDouble(Entry::averageRating).reversed())
+            .thenComparing(Entry::artisanId);
+
+    private final MongoTemplate mongoTemplate;
+
+    // Guards the current state and the pending changes; held only briefly, never during a scan
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Serialises rebuilds, which scan without holding the lock
+    private final Object rebuildMonitor = new Object();
+
+    private Facets facets = new Facets();
+
+    // Non-null while a rebuild scans; changes made meanwhile are replayed onto the rebuilt facets
+    private List<Consumer<Facets>> changesDuringRebuild;
+
+    private record Entry(String artisanId, String name, double averageRating, int totalSales, int[] categories) {
+    }
+
+    /**
+     * Replaces the index contents with the active artisans currently stored. The new facets are built off-lock
+     * while queries keep reading the old ones, then swapped in.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        Query query = Query.query(where("isActive").is(true));
+        query.fields().include("name", "artworkCategories", "averageRating", "totalSales", "isActive");
+
+        synchronized (rebuildMonitor) {
+            List<Consumer<Facets>> changes = new ArrayList<>();
+            withWriteLock(() -> changesDuringRebuild = changes);
+            Facets rebuilt = new Facets();
+            try (Stream<Artisan> artisans = mongoTemplate.stream(query, Artisan.class)) {
+                artisans.forEach(rebuilt::add);
+            } catch (RuntimeException e) {
+                withWriteLock(() -> changesDuringRebuild = null);
+                throw e;
+            }
+            withWriteLock(() -> {
+                changes.forEach(change -> change.accept(rebuilt));
+                changesDuringRebuild = null;
+                facets = rebuilt;
+                log.info("Category facet index built with {} artisans in {} categories",
+                        rebuilt.entries.size(), rebuilt.categoryNames.size());
+            });
+        }
+    }
+
+    /**
+     * Records the artisan's current categories, rating and sales; inactive artisans are removed.
+     */
+    public void upsert(Artisan artisan) {
+        apply(current -> current.upsert(artisan));
+    }
+
+    public void remove(String artisanId) {
+        apply(current -> current.removeEntry(artisanId));
+    }
+
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.userType() != UserType.ARTISAN) {
+            return;
+        }
+        if (event.deleted()) {
+            remove(event.userId());
+        } else {
+            upsert((Artisan) event.user());
+        }
+    }
+
+    @EventListener
+    public void onUserCachesReset(UserCachesResetEvent event) {
+        rebuild();
+    }
+
+    /**
+     * @return every category with at least one active artisan, most populated first
+     */
+    public List<CategoryCountDTO> getCategoryCounts() {
+        List<CategoryCountDTO> result = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            Facets current = facets;
+            for (int id = 0; id < current.categoryNames.size(); id++) {
+                if (current.counts[id] > 0) {
+                    result.add(new CategoryCountDTO(current.categoryNames.get(id), current.counts[id]));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        result.sort(Comparator.comparingInt(CategoryCountDTO::getCount).reversed()
+                .thenComparing(CategoryCountDTO::getCategory));
+        return result;
+    }
+
+    public int getCategoryCount(String category) {
+        lock.readLock().lock();
+        try {
+            Integer id = facets.categoryIds.get(category);
+            return id == null ? 0 : facets.counts[id];
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<ArtisanRankDTO> getTopArtisans(String category, Ranking ranking, int limit) {
+        lock.readLock().lock();
+        try {
+            Integer id = facets.categoryIds.get(category);
+            if (id == null) {
+                return List.of();
+            }
+            NavigableSet<Entry> ranked = (ranking == Ranking.SALES ? facets.bySales : facets.byRating).get(id);
+            List<ArtisanRankDTO> result = new ArrayList<>(Math.min(limit, ranked.size()));
+            Iterator<Entry> iterator = ranked.iterator();
+            while (result.size() < limit && iterator.hasNext()) {
+                Entry entry = iterator.next();
+                result.add(new ArtisanRankDTO(entry.artisanId(), entry.name(), entry.averageRating(), entry.totalSales()));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void apply(Consumer<Facets> change) {
+        withWriteLock(() -> {
+            change.accept(facets);
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.add(change);
+            }
+        });
+    }
+
+    private void withWriteLock(Runnable action) {
+        lock.writeLock().lock();
+        try {
+            action.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Not thread-safe; the current facets are guarded by the lock and rebuilt ones are confined to the rebuild
+    private static final class Facets {
+
+        // Category ids are assigned on first sight and never reused, so arrays indexed by them only grow
+        private final Map<String, Integer> categoryIds = new HashMap<>();
+        private final List<String> categoryNames = new ArrayList<>();
+        private int[] counts = new int[16];
+        private final List<NavigableSet<Entry>> byRating = new ArrayList<>();
+        private final List<NavigableSet<Entry>> bySales = new ArrayList<>();
+        private final Map<String, Entry> entries = new HashMap<>();
+
+        void upsert(Artisan artisan) {
+            removeEntry(artisan.getId());
+            if (artisan.isActive()) {
+                add(artisan);
+            }
+        }
+
+        void add(Artisan artisan) {
+            List<String> categories = artisan.getArtworkCategories() == null ? List.of() : artisan.getArtworkCategories();
+            int[] ids = categories.stream()
+                    .filter(category -> category != null && !category.isBlank())
+                    .distinct()
+                    .mapToInt(this::categoryId)
+                    .toArray();
+            Entry entry = new Entry(artisan.getId(), artisan.getName(), artisan.getAverageRating(), artisan.getTotalSales(), ids);
+            entries.put(entry.artisanId(), entry);
+            for (int id : ids) {
+                counts[id]++;
+                byRating.get(id).add(entry);
+                bySales.get(id).add(entry);
+            }
+        }
+
+        void removeEntry(String artisanId) {
+            Entry entry = entries.remove(artisanId);
+            if (entry == null) {
+                return;
+            }
+            for (int id : entry.categories()) {
+                counts[id]--;
+                byRating.get(id).remove(entry);
+                bySales.get(id).remove(entry);
+            }
+        }
+
+        private int categoryId(String category) {
+            Integer existing = categoryIds.get(category);
+            if (existing != null) {
+                return existing;
+            }
+            int id = categoryNames.size();
+            categoryIds.put(category, id);
+            categoryNames.add(category);
+            byRating.add(new TreeSet<>(RATING_ORDER));
+            bySales.add(new TreeSet<>(SALES_ORDER));
+            if (id == counts.length) {
+                counts = Arrays.copyOf(counts, counts.length * 2);
+            }
+            return id;
+        }
+    }
+}
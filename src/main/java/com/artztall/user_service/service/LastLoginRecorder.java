@@ -0,0 +1,136 @@
+package com.artztall.user_service.service;
+
+import com.artztall.user_service.model.Artisan;
+import com.artztall.user_service.model.BaseUser;
+import com.artztall.user_service.model.Buyer;
+import com.artztall.user_service.model.UserType;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Takes last-login timestamps off the login path. Logins are recorded in memory, coalesced per user, and
+ * written periodically as one bulk {@code $max} update per collection, so replayed or out-of-order flushes
+ * never move a timestamp backwards.
+ * <p>
+ * At most {@code last-login.max-pending} users are buffered. Only the scheduled flusher writes to Mongo, so a
+ * login never waits for a bulk write: when the buffer is full, logins of users not already pending are not
+ * recorded and are counted in {@code last.login.dropped}. Failed flushes are requeued within the same bound.
+ * Pending timestamps are also flushed on shutdown.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LastLoginRecorder {
+
+    private final MongoTemplate mongoTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${last-login.max-pending:10000}")
+    private int maxPending;
+
+    private final Map<String, PendingLogin> pending = new ConcurrentHashMap<>();
+
+    private record PendingLogin(UserType userType, LocalDateTime loginAt) {
+    }
+
+    @Timed(value = "last-login.record", description = "Buffering a login timestamp")
+    public void record(BaseUser user) {
+        record(user.getId(), user.getUserType(), LocalDateTime.now());
+    }
+
+    void record(String userId, UserType userType, LocalDateTime loginAt) {
+        if (userType == UserType.ADMIN) {
+            return;
+        }
+        // Users already pending are coalesced, so only new users can be turned away
+        if (!pending.containsKey(userId) && pending.size() >= maxPending) {
+            dropped(1);
+            return;
+        }
+        pending.merge(userId, new PendingLogin(userType, loginAt), LastLoginRecorder::latest);
+    }
+
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${last-login.flush-interval-ms:5000}")
+    public void flush() {
+        List<Map.Entry<String, PendingLogin>> drained = new ArrayList<>();
+        for (String userId : pending.keySet()) {
+            PendingLogin login = pending.remove(userId);
+            if (login != null) {
+                drained.add(Map.entry(userId, login));
+            }
+        }
+        if (drained.isEmpty()) {
+            return;
+        }
+
+        BulkOperations artisans = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Artisan.class);
+        BulkOperations buyers = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Buyer.class);
+        int artisanCount = 0;
+        int buyerCount = 0;
+        for (Map.Entry<String, PendingLogin> entry : drained) {
+            Query query = Query.query(where("_id").is(entry.getKey()));
+            Update update = new Update().max("lastLoginDate", entry.getValue().loginAt());
+            if (entry.getValue().userType() == UserType.ARTISAN) {
+                artisans.updateOne(query, update);
+                artisanCount++;
+            } else {
+                buyers.updateOne(query, update);
+                buyerCount++;
+            }
+        }
+
+        try {
+            if (artisanCount > 0) {
+                artisans.execute();
+            }
+            if (buyerCount > 0) {
+                buyers.execute();
+            }
+            log.debug("Flushed last login dates for {} artisans and {} buyers", artisanCount, buyerCount);
+        } catch (RuntimeException e) {
+            // $max makes a retry of the already applied part harmless; requeue as much as the bound allows
+            int requeued = 0;
+            for (Map.Entry<String, PendingLogin> entry : drained) {
+                if (pending.containsKey(entry.getKey()) || pending.size() < maxPending) {
+                    pending.merge(entry.getKey(), entry.getValue(), LastLoginRecorder::latest);
+                    requeued++;
+                }
+            }
+            dropped(drained.size() - requeued);
+            log.error("Failed to flush {} last login dates, {} requeued: {}", drained.size(), requeued, e.getMessage());
+        }
+    }
+
+    private void dropped(int count) {
+        if (count > 0) {
+            meterRegistry.counter("last.login.dropped").increment(count);
+        }
+    }
+
+    int pendingCount() {
+        return pending.size();
+    }
+
+    private static PendingLogin latest(PendingLogin a, PendingLogin b) {
+        return a.loginAt().isAfter(b.loginAt()) ? a : b;
+    }
+}
@@ -0,0 +1,55 @@
+package com.artztall.user_service.service;
+
+import com.artztall.user_service.dto.ArtisanDTO;
+import com.artztall.user_service.dto.BuyerDTO;
+import com.artztall.user_service.model.WishListItem;
+import com.artztall.user_service.repository.ReactiveArtisanRepository;
+import com.artztall.user_service.repository.ReactiveBuyerRepository;
+import com.artztall.user_service.repository.ReactiveWishlistEntryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of the single-user reads in {@link UserService} and {@link WishlistService}.
+ * Results and errors are the same as the blocking methods', so either can back the read APIs.
+ */
+@Service
+@RequiredArgsConstructor
+public class ReactiveUserReadService {
+    private final ReactiveArtisanRepository artisanRepository;
+    private final ReactiveBuyerRepository buyerRepository;
+    private final ReactiveWishlistEntryRepository wishlistEntryRepository;
+
+    public Mono<ArtisanDTO> getArtisanById(String id) {
+        return artisanRepository.findViewById(id)
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("Artisan not found")))
+                .map(UserService::convertToArtisanDTO);
+    }
+
+    public Mono<BuyerDTO> getBuyerById(String id) {
+        return buyerRepository.findViewById(id)
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("Buyer not found")))
+                .map(UserService::convertToBuyerDTO)
+                .flatMap(dto -> wishlistItems(dto.getId()).collectList()
+                        .map(items -> {
+                            dto.setWishlist(items);
+                            return dto;
+                        }));
+    }
+
+    // An empty wishlist is only an error when the buyer does not exist
+    public Flux<WishListItem> getWishlist(String buyerId) {
+        return wishlistItems(buyerId)
+                .switchIfEmpty(buyerRepository.existsById(buyerId)
+                        .flatMapMany(exists -> exists
+                                ? Flux.<WishListItem>empty()
+                                : Flux.error(new RuntimeException("Buyer not found"))));
+    }
+
+    private Flux<WishListItem> wishlistItems(String buyerId) {
+        return wishlistEntryRepository.findByBuyerIdOrderByAddedOnAscIdAsc(buyerId)
+                .map(WishlistService::toItem);
+    }
+}
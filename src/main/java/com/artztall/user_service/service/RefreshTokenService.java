@@ -0,0 +1,82 @@
+package com.artztall.user_service.service;
+
+import com.artztall.user_service.exception.InvalidTokenException;
+import com.artztall.user_service.model.RefreshTokenRecord;
+import com.artztall.user_service.repository.RefreshTokenRepository;
+import com.artztall.user_service.security.JwtPrincipal;
+import com.artztall.user_service.security.JwtTokenProvider;
+import com.artztall.user_service.security.TokenRevocationRegistry;
+import com.artztall.user_service.security.UserDetailsImpl;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Issues and rotates single-use refresh tokens.
+ * <p>
+ * Every issued token is recorded by its {@code jti}; exchanging it deletes the record. A valid token whose
+ * record is already gone has been used before, which means it leaked: all of the user's refresh tokens are
+ * dropped and their access tokens revoked.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RefreshTokenService {
+    private final JwtTokenProvider tokenProvider;
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final TokenRevocationRegistry revocationRegistry;
+    private final MongoTemplate mongoTemplate;
+
+    public String issue(UserDetailsImpl userDetails) {
+        JwtTokenProvider.IssuedToken token = tokenProvider.generateRefreshToken(userDetails);
+        refreshTokenRepository.save(new RefreshTokenRecord(token.tokenId(), userDetails.user().getId(), token.expiresAt()));
+        return token.value();
+    }
+
+    /**
+     * Consumes a refresh token.
+     *
+     * @return the verified claims of the consumed token
+     * @throws InvalidTokenException if the token is invalid, revoked or was already used
+     */
+    public JwtPrincipal consume(String refreshToken) {
+        JwtPrincipal principal = tokenProvider.parseRefreshToken(refreshToken)
+                .orElseThrow(() -> new InvalidTokenException("Invalid or expired refresh token"));
+        if (principal.tokenId() == null || revocationRegistry.isRevoked(principal)) {
+            throw new InvalidTokenException("Refresh token has been revoked");
+        }
+        if (!delete(principal.tokenId())) {
+            log.warn("Refresh token reuse detected for user {}; revoking all of their sessions", principal.id());
+            revokeAll(principal.id());
+            throw new InvalidTokenException("Refresh token has been revoked");
+        }
+        return principal;
+    }
+
+    /**
+     * Drops a refresh token without issuing a new one; unknown or invalid tokens are ignored.
+     */
+    public void revoke(String refreshToken) {
+        tokenProvider.parseRefreshToken(refreshToken)
+                .map(JwtPrincipal::tokenId)
+                .ifPresent(this::delete);
+    }
+
+    public void revokeAll(String userId) {
+        if (userId == null) {
+            return;
+        }
+        refreshTokenRepository.deleteByUserId(userId);
+        revocationRegistry.revokeUser(userId);
+    }
+
+    // The delete is atomic, so of two concurrent exchanges of the same token only one succeeds
+    private boolean delete(String tokenId) {
+        return mongoTemplate.remove(new Query(where("_id").is(tokenId)), RefreshTokenRecord.class)
+                .getDeletedCount() == 1;
+    }
+}
@@ -0,0 +1,165 @@
+package com.artztall.user_service.service;
+
+import com.artztall.user_service.model.Artisan;
+import com.artztall.user_service.model.BaseUser;
+import com.artztall.user_service.model.Buyer;
+import com.artztall.user_service.model.UserDirectoryEntry;
+import com.artztall.user_service.model.UserType;
+import com.artztall.user_service.repository.ArtisanRepository;
+import com.artztall.user_service.repository.BuyerRepository;
+import com.artztall.user_service.repository.UserDirectoryRepository;
+import com.artztall.user_service.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Resolves users by email through the {@code user_directory} collection.
+ * <p>
+ * Until the directory has been backfilled ({@code user-directory.backfill.enabled}), misses fall back
+ * to probing the artisan and buyer collections when {@code user-directory.legacy-fallback} is set.
+ * Admins are only covered by the directory and, while the fallback is on, by {@link #isEmailTaken}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserDirectoryService {
+
+    private final UserDirectoryRepository userDirectoryRepository;
+    private final UserRepository userRepository;
+    private final ArtisanRepository artisanRepository;
+    private final BuyerRepository buyerRepository;
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${user-directory.legacy-fallback:true}")
+    private boolean legacyFallback;
+
+    public boolean isEmailTaken(String email) {
+        if (userDirectoryRepository.existsById(email)) {
+            return true;
+        }
+        return legacyFallback && (userRepository.existsByEmail(email) ||
+                artisanRepository.existsByEmail(email) ||
+                buyerRepository.existsByEmail(email));
+    }
+
+    @Timed(value = "user.directory.lookup", description = "Email to user resolution, including the legacy collection fallback", histogram = true)
+    public Optional<BaseUser> findUserByEmail(String email) {
+        Optional<UserDirectoryEntry> entry = userDirectoryRepository.findById(email);
+        if (entry.isPresent()) {
+            return findUserById(entry.get());
+        }
+        if (!legacyFallback) {
+            return Optional.empty();
+        }
+
+        Optional<BaseUser> user = artisanRepository.findByEmail(email)
+                .<BaseUser>map(artisan -> artisan)
+                .or(() -> buyerRepository.findByEmail(email));
+        // Self-healing for users created before the directory; another request may be doing the same
+        user.ifPresent(found -> userDirectoryRepository.save(toEntry(found)));
+        return user;
+    }
+
+    /**
+     * Inserts the directory entry of a new user.
+     *
+     * @throws org.springframework.dao.DuplicateKeyException if the email is already registered
+     */
+    public void register(BaseUser user) {
+        userDirectoryRepository.insert(toEntry(user));
+    }
+
+    public void setActive(String email, boolean active) {
+        mongoTemplate.updateFirst(
+                Query.query(where("_id").is(email)),
+                Update.update("active", active),
+                UserDirectoryEntry.class
+        );
+    }
+
+    /**
+     * Upserts a directory entry for every admin, buyer and artisan, writing {@code batchSize} entries per round trip.
+     * <p>
+     * Each collection overwrites the entries of the ones before it, so an email held by several users resolves
+     * to the artisan first and then the buyer, as the legacy lookup did.
+     *
+     * @return the number of entries written
+     */
+    public long backfill(int batchSize) {
+        long written = backfill(BaseUser.class, UserType.ADMIN, batchSize)
+                + backfill(Buyer.class, UserType.BUYER, batchSize)
+                + backfill(Artisan.class, UserType.ARTISAN, batchSize);
+        log.info("User directory backfill complete, {} entries written", written);
+        return written;
+    }
+
+    // Reads raw documents because admins are stored as the abstract BaseUser
+    private long backfill(Class<? extends BaseUser> type, UserType userType, int batchSize) {
+        Query query = new Query();
+        query.fields().include("email", "isActive");
+
+        long written = 0;
+        List<Document> batch = new ArrayList<>(batchSize);
+        try (Stream<Document> users = mongoTemplate.stream(query, Document.class, mongoTemplate.getCollectionName(type))) {
+            var iterator = users.iterator();
+            while (iterator.hasNext()) {
+                Document user = iterator.next();
+                if (user.getString("email") == null) {
+                    continue;
+                }
+                batch.add(user);
+                if (batch.size() == batchSize) {
+                    written += writeBatch(batch, userType);
+                    batch.clear();
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            written += writeBatch(batch, userType);
+        }
+        log.info("Backfilled {} directory entries from {}", written, type.getSimpleName());
+        return written;
+    }
+
+    private int writeBatch(List<Document> users, UserType userType) {
+        BulkOperations operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, UserDirectoryEntry.class);
+        for (Document user : users) {
+            operations.upsert(
+                    Query.query(where("_id").is(user.getString("email"))),
+                    new Update()
+                            .set("userId", user.get("_id").toString())
+                            .set("userType", userType)
+                            .set("active", user.getBoolean("isActive", false))
+            );
+        }
+        operations.execute();
+        return users.size();
+    }
+
+    private Optional<BaseUser> findUserById(UserDirectoryEntry entry) {
+        return switch (entry.getUserType()) {
+            case ARTISAN -> artisanRepository.findById(entry.getUserId()).<BaseUser>map(artisan -> artisan);
+            case BUYER -> buyerRepository.findById(entry.getUserId()).<BaseUser>map(buyer -> buyer);
+            case ADMIN -> userRepository.findById(entry.getUserId());
+        };
+    }
+
+    private UserDirectoryEntry toEntry(BaseUser user) {
+        return new UserDirectoryEntry(user.getEmail(), user.getId(), user.getUserType(), user.isActive());
+    }
+}
@@ -2,67 +2,211 @@ package com.artztall.user_service.service;
 
 
 import com.artztall.user_service.dto.ArtisanDTO;
+import com.artztall.user_service.dto.ArtisanRankDTO;
+import com.artztall.user_service.dto.ArtisanSearchCriteria;
 import com.artztall.user_service.dto.BuyerDTO;
+import com.artztall.user_service.dto.CategoryCountDTO;
+import com.artztall.user_service.dto.CursorPage;
 import com.artztall.user_service.dto.UpdateArtisanRequest;
 import com.artztall.user_service.dto.UpdateBuyerRequest;
+import com.artztall.user_service.dto.UserLookupResult;
+import com.artztall.user_service.exception.InvalidCursorException;
+import com.artztall.user_service.exception.InvalidFieldSelectionException;
+import com.artztall.user_service.exception.LookupLimitExceededException;
 import com.artztall.user_service.model.Artisan;
+import com.artztall.user_service.model.BaseUser;
 import com.artztall.user_service.model.Buyer;
-import com.artztall.user_service.model.WishListItem;
+import com.artztall.user_service.repository.ArtisanView;
 import com.artztall.user_service.repository.BuyerRepository;
+import com.artztall.user_service.repository.BuyerView;
+import com.artztall.user_service.security.CustomUserDetailsService;
+import com.artztall.user_service.security.TokenRevocationRegistry;
+import com.artztall.user_service.util.CursorCodec;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import com.artztall.user_service.repository.ArtisanRepository;
 
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
 
 @Service
 @RequiredArgsConstructor
+@Timed(value = "user.service", description = "UserService calls by method and exception", histogram = true)
 public class UserService {
     private final ArtisanRepository artisanRepository;
     private final BuyerRepository buyerRepository;
+    private final CustomUserDetailsService userDetailsService;
+    private final TokenRevocationRegistry revocationRegistry;
+    private final UserDirectoryService userDirectoryService;
+    private final WishlistService wishlistService;
+    private final MongoTemplate mongoTemplate;
+    private final ArtisanSearchService artisanSearchService;
+    private final CategoryFacetIndex categoryFacetIndex;
+
+    // Adapts fully loaded entities to the views, so a single mapping produces every DTO
+    private static final ProjectionFactory PROJECTIONS = new SpelAwareProxyProjectionFactory();
+
+    // Fields behind ArtisanView and BuyerView, for template queries that read the entity type directly
+    private static final String[] ARTISAN_VIEW_FIELDS = {
+            "email", "name", "phoneNumber", "profilePictureUrl", "joinDate", "bio",
+            "artworkCategories", "averageRating", "totalSales", "isVerified"
+    };
+    private static final String[] BUYER_VIEW_FIELDS = {
+            "email", "name", "phoneNumber", "profilePictureUrl", "joinDate", "address",
+            "favoriteArtisans", "recentlyViewedProducts"
+    };
+
+    // DTO properties that can be requested through fields=, mapped to their document fields
+    private static final Map<String, String> ARTISAN_SELECTABLE_FIELDS = Map.of(
+            "id", "_id", "email", "email", "name", "name", "phoneNumber", "phoneNumber",
+            "profilePictureUrl", "profilePictureUrl", "bio", "bio", "artworkCategories", "artworkCategories",
+            "averageRating", "averageRating", "totalSales", "totalSales", "isVerified", "isVerified"
+    );
+    private static final Map<String, String> BUYER_SELECTABLE_FIELDS = Map.of(
+            "id", "_id", "email", "email", "name", "name", "phoneNumber", "phoneNumber",
+            "profilePictureUrl", "profilePictureUrl", "addresses", "address",
+            "favoriteArtisans", "favoriteArtisans", "recentlyViewedProducts", "recentlyViewedProducts"
+    );
+
+    @Value("${user.lookup.max-ids:100}")
+    private int maxLookupIds;
 
     // Artisan methods
     public Page<ArtisanDTO> getAllArtisans(Pageable pageable) {
-        // Fetch all artisans from the repository with pagination
-        Page<Artisan> artisansPage = artisanRepository.findAll(pageable);
+        // Fetch only the DTO fields of each artisan, then map the projections to ArtisanDTO
+        Page<ArtisanView> artisansPage = artisanRepository.findAllBy(pageable);
+        return artisansPage.map(UserService::convertToArtisanDTO);
+    }
+
+    /**
+     * Lists artisans reading and returning only the requested {@link ArtisanDTO} properties.
+     */
+    public Page<Map<String, Object>> getAllArtisans(Pageable pageable, Set<String> fields) {
+        return sparsePage(Artisan.class, pageable, fields, ARTISAN_SELECTABLE_FIELDS);
+    }
 
-        // Convert each Artisan object to ArtisanDTO using the map() method
-        return artisansPage.map(this::convertToArtisanDTO);
+    /**
+     * Lists artisans by join date using keyset pagination, so deep pages cost the same as the first one
+     * and no total count is computed.
+     */
+    public CursorPage<ArtisanDTO> getArtisansPage(String cursor, int size, Sort.Direction direction) {
+        return keysetPage(Artisan.class, ARTISAN_VIEW_FIELDS, cursor, size, direction, UserService::convertToArtisanDTO);
+    }
+
+    public Page<ArtisanDTO> searchArtisans(ArtisanSearchCriteria criteria, Pageable pageable) {
+        return artisanSearchService.search(criteria, pageable).map(UserService::convertToArtisanDTO);
+    }
+
+    public List<CategoryCountDTO> getArtisanCategoryCounts() {
+        return categoryFacetIndex.getCategoryCounts();
+    }
+
+    public List<ArtisanRankDTO> getTopArtisans(String category, CategoryFacetIndex.Ranking ranking, int limit) {
+        return categoryFacetIndex.getTopArtisans(category, ranking, limit);
     }
 
     public ArtisanDTO getArtisanById(String id) {
-        Artisan artisan = artisanRepository.findById(id)
+        ArtisanView artisan = artisanRepository.findViewById(id)
                 .orElseThrow(() -> new RuntimeException("Artisan not found"));
         return convertToArtisanDTO(artisan);
     }
 
+    /**
+     * Resolves many artisans with a single query. Every requested id appears in the result, in request order,
+     * with a not-found marker when no artisan has that id.
+     */
+    public Map<String, UserLookupResult<ArtisanDTO>> lookupArtisans(List<String> ids) {
+        return lookup(ids, Artisan.class, ARTISAN_VIEW_FIELDS, Artisan::getId, UserService::convertToArtisanDTO);
+    }
+
     public ArtisanDTO updateArtisan(String id, UpdateArtisanRequest request) {
         Artisan artisan = artisanRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Artisan not found"));
 
-        if (request.getName() != null) artisan.setName(request.getName());
+        if (request.getName() != null) {
+            artisan.setName(request.getName());
+            artisan.setNameLower(ArtisanSearchService.normalizeName(request.getName()));
+        }
         if (request.getPhoneNumber() != null) artisan.setPhoneNumber(request.getPhoneNumber());
         if (request.getProfilePictureUrl() != null) artisan.setProfilePictureUrl(request.getProfilePictureUrl());
         if (request.getBio() != null) artisan.setBio(request.getBio());
         if (request.getArtworkCategories() != null) artisan.setArtworkCategories(request.getArtworkCategories());
 
-        return convertToArtisanDTO(artisanRepository.save(artisan));
+        Artisan savedArtisan = artisanRepository.save(artisan);
+        userDetailsService.evict(savedArtisan.getEmail());
+        categoryFacetIndex.upsert(savedArtisan);
+        return convertToArtisanDTO(savedArtisan);
+    }
+
+    @Transactional
+    public ArtisanDTO deactivateArtisan(String id) {
+        Artisan artisan = artisanRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Artisan not found"));
+
+        artisan.setActive(false);
+        Artisan savedArtisan = artisanRepository.save(artisan);
+        userDirectoryService.setActive(savedArtisan.getEmail(), false);
+        userDetailsService.evict(savedArtisan.getEmail());
+        revocationRegistry.revokeUser(savedArtisan.getId());
+        categoryFacetIndex.remove(savedArtisan.getId());
+        return convertToArtisanDTO(savedArtisan);
     }
 
     // Buyer methods
     public Page<BuyerDTO> getAllBuyers(Pageable pageable) {
-        return buyerRepository.findAll(pageable)
-                .map(this::convertToBuyerDTO);
+        return buyerRepository.findAllBy(pageable)
+                .map(UserService::convertToBuyerDTO);
+    }
+
+    /**
+     * Lists buyers reading and returning only the requested {@link BuyerDTO} properties.
+     */
+    public Page<Map<String, Object>> getAllBuyers(Pageable pageable, Set<String> fields) {
+        return sparsePage(Buyer.class, pageable, fields, BUYER_SELECTABLE_FIELDS);
+    }
+
+    /**
+     * Lists buyers by join date using keyset pagination; see {@link #getArtisansPage}. Wishlists are not included.
+     */
+    public CursorPage<BuyerDTO> getBuyersPage(String cursor, int size, Sort.Direction direction) {
+        return keysetPage(Buyer.class, BUYER_VIEW_FIELDS, cursor, size, direction, UserService::convertToBuyerDTO);
     }
 
     public BuyerDTO getBuyerById(String id) {
-        Buyer buyer = buyerRepository.findById(id)
+        BuyerView buyer = buyerRepository.findViewById(id)
                 .orElseThrow(() -> new RuntimeException("Buyer not found"));
-        return convertToBuyerDTO(buyer);
+        return withWishlist(convertToBuyerDTO(buyer));
+    }
+
+    /**
+     * Resolves many buyers with a single query; see {@link #lookupArtisans(List)}. Wishlists are not included.
+     */
+    public Map<String, UserLookupResult<BuyerDTO>> lookupBuyers(List<String> ids) {
+        return lookup(ids, Buyer.class, BUYER_VIEW_FIELDS, Buyer::getId, UserService::convertToBuyerDTO);
     }
 
     public BuyerDTO updateBuyer(String id, UpdateBuyerRequest request) {
@@ -74,58 +218,143 @@ public class UserService {
         if (request.getProfilePictureUrl() != null) buyer.setProfilePictureUrl(request.getProfilePictureUrl());
         if (request.getAddresses() != null) buyer.setAddress(request.getAddresses());
 
-
-        return convertToBuyerDTO(buyerRepository.save(buyer));
+        Buyer savedBuyer = buyerRepository.save(buyer);
+        userDetailsService.evict(savedBuyer.getEmail());
+        return withWishlist(convertToBuyerDTO(savedBuyer));
     }
 
-    public BuyerDTO addItemToWishlist(String buyerId, WishListItem wishListItem) {
-        Buyer buyer = buyerRepository.findById(buyerId)
+    @Transactional
+    public BuyerDTO deactivateBuyer(String id) {
+        Buyer buyer = buyerRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Buyer not found"));
 
-        // Set the current timestamp if not already set
-        if (wishListItem.getAddedOn() == null) {
-            wishListItem.setAddedOn(LocalDateTime.now());
+        buyer.setActive(false);
+        Buyer savedBuyer = buyerRepository.save(buyer);
+        userDirectoryService.setActive(savedBuyer.getEmail(), false);
+        userDetailsService.evict(savedBuyer.getEmail());
+        revocationRegistry.revokeUser(savedBuyer.getId());
+        return convertToBuyerDTO(savedBuyer);
+    }
+
+    // Helper methods
+    private <U extends BaseUser, D> CursorPage<D> keysetPage(Class<U> type, String[] fields, String cursor, int size,
+                                                            Sort.Direction direction, Function<U, D> toDto) {
+        Query query = (cursor != null ? Query.query(afterJoinDateCursor(cursor, direction)) : new Query())
+                .with(Sort.by(direction, "joinDate", "_id"))
+                .limit(size + 1);
+        query.fields().include(fields);
+        List<U> users = mongoTemplate.find(query, type);
+
+        boolean hasNext = users.size() > size;
+        List<U> window = hasNext ? users.subList(0, size) : users;
+        List<D> content = new ArrayList<>(window.size());
+        for (U user : window) {
+            content.add(toDto.apply(user));
         }
 
-        // Initialize wishlist if null
-        if (buyer.getWhishList() == null) {
-            buyer.setWhishList(new ArrayList<>());
+        String nextCursor = null;
+        if (hasNext) {
+            U last = window.get(window.size() - 1);
+            String joinDate = last.getJoinDate() != null ? last.getJoinDate().toString() : "";
+            nextCursor = CursorCodec.encode(direction.name(), joinDate, last.getId());
         }
+        return new CursorPage<>(content, nextCursor, hasNext);
+    }
 
-        // Check if product already exists in wishlist
-        boolean productExists = buyer.getWhishList().stream()
-                .anyMatch(item -> item.getProductId().equals(wishListItem.getProductId()));
+    private Page<Map<String, Object>> sparsePage(Class<?> type, Pageable pageable, Set<String> fields,
+                                                 Map<String, String> selectable) {
+        Map<String, String> selected = new LinkedHashMap<>();
+        for (String field : fields) {
+            String documentField = selectable.get(field);
+            if (documentField == null) {
+                throw new InvalidFieldSelectionException("Unknown field: " + field);
+            }
+            selected.put(field, documentField);
+        }
 
-        if (!productExists) {
-            buyer.getWhishList().add(wishListItem);
-            Buyer savedBuyer = buyerRepository.save(buyer);
-            return convertToBuyerDTO(savedBuyer);
+        Query query = new Query().with(pageable);
+        query.fields().include(selected.values().toArray(new String[0]));
+        if (!selected.containsValue("_id")) {
+            query.fields().exclude("_id");
         }
+        List<Document> documents = mongoTemplate.find(query, Document.class, mongoTemplate.getCollectionName(type));
 
-        return convertToBuyerDTO(buyer);
+        List<Map<String, Object>> content = new ArrayList<>(documents.size());
+        for (Document document : documents) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            selected.forEach((field, documentField) -> {
+                Object value = document.get(documentField);
+                row.put(field, value instanceof ObjectId objectId ? objectId.toHexString() : value);
+            });
+            content.add(row);
+        }
+        // The listing is unfiltered, so the total comes from collection metadata instead of a full count
+        return PageableExecutionUtils.getPage(content, pageable, () -> mongoTemplate.estimatedCount(type));
     }
 
-    public BuyerDTO removeItemFromWishlist(String buyerId, String productId) {
-        Buyer buyer = buyerRepository.findById(buyerId)
-                .orElseThrow(() -> new RuntimeException("Buyer not found"));
+    // Users without a joinDate sort before all others in ascending order and after them in descending order
+    private Criteria afterJoinDateCursor(String cursor, Sort.Direction direction) {
+        String[] parts = CursorCodec.decode(cursor, 3);
+        if (!direction.name().equals(parts[0])) {
+            throw new InvalidCursorException("Cursor was issued for a different sort direction");
+        }
+        boolean ascending = direction == Sort.Direction.ASC;
+        String id = parts[2];
 
-        if (buyer.getWhishList() != null) {
-            buyer.getWhishList().removeIf(item -> item.getProductId().equals(productId));
-            Buyer savedBuyer = buyerRepository.save(buyer);
-            return convertToBuyerDTO(savedBuyer);
+        if (parts[1].isEmpty()) {
+            if (ascending) {
+                return new Criteria().orOperator(
+                        where("joinDate").ne(null),
+                        where("joinDate").is(null).and("_id").gt(id));
+            }
+            return where("joinDate").is(null).and("_id").lt(id);
         }
 
-        return convertToBuyerDTO(buyer);
+        LocalDateTime joinDate;
+        try {
+            joinDate = LocalDateTime.parse(parts[1]);
+        } catch (DateTimeParseException e) {
+            throw new InvalidCursorException("Invalid cursor: " + cursor);
+        }
+        if (ascending) {
+            return new Criteria().orOperator(
+                    where("joinDate").gt(joinDate),
+                    where("joinDate").is(joinDate).and("_id").gt(id));
+        }
+        return new Criteria().orOperator(
+                where("joinDate").lt(joinDate),
+                where("joinDate").is(joinDate).and("_id").lt(id),
+                where("joinDate").is(null));
     }
 
-    public List<WishListItem> getWishlist(String buyerId) {
-        Buyer buyer = buyerRepository.findById(buyerId)
-                .orElseThrow(() -> new RuntimeException("Buyer not found"));
+    private <U, D> Map<String, UserLookupResult<D>> lookup(List<String> ids, Class<U> type, String[] fields,
+                                                           Function<U, String> idOf, Function<U, D> toDto) {
+        Set<String> uniqueIds = new LinkedHashSet<>(ids);
+        if (uniqueIds.size() > maxLookupIds) {
+            throw new LookupLimitExceededException("At most " + maxLookupIds + " ids can be looked up at once");
+        }
+
+        Query query = Query.query(where("_id").in(uniqueIds));
+        query.fields().include(fields);
+        Map<String, D> found = new HashMap<>();
+        for (U user : mongoTemplate.find(query, type)) {
+            found.put(idOf.apply(user), toDto.apply(user));
+        }
 
-        return buyer.getWhishList() != null ? buyer.getWhishList() : new ArrayList<>();
+        Map<String, UserLookupResult<D>> results = new LinkedHashMap<>();
+        for (String id : uniqueIds) {
+            D dto = found.get(id);
+            results.put(id, dto != null ? UserLookupResult.found(dto) : UserLookupResult.notFound());
+        }
+        return results;
     }
-    // Helper methods
-    private ArtisanDTO convertToArtisanDTO(Artisan artisan) {
+
+    private static ArtisanDTO convertToArtisanDTO(Artisan artisan) {
+        return convertToArtisanDTO(PROJECTIONS.createProjection(ArtisanView.class, artisan));
+    }
+
+    // Shared with ReactiveUserReadService so both read paths render identical DTOs
+    static ArtisanDTO convertToArtisanDTO(ArtisanView artisan) {
         ArtisanDTO dto = new ArtisanDTO();
         dto.setId(artisan.getId());
         dto.setEmail(artisan.getEmail());
@@ -136,11 +365,15 @@ public class UserService {
         dto.setArtworkCategories(artisan.getArtworkCategories());
         dto.setAverageRating(artisan.getAverageRating());
         dto.setTotalSales(artisan.getTotalSales());
-        dto.setVerified(artisan.isVerified());
+        dto.setVerified(artisan.getIsVerified());
         return dto;
     }
 
-    private BuyerDTO convertToBuyerDTO(Buyer buyer) {
+    private static BuyerDTO convertToBuyerDTO(Buyer buyer) {
+        return convertToBuyerDTO(PROJECTIONS.createProjection(BuyerView.class, buyer));
+    }
+
+    static BuyerDTO convertToBuyerDTO(BuyerView buyer) {
         BuyerDTO dto = new BuyerDTO();
         dto.setId(buyer.getId());
         dto.setEmail(buyer.getEmail());
@@ -150,7 +383,12 @@ public class UserService {
         dto.setAddresses(buyer.getAddress());
         dto.setFavoriteArtisans(buyer.getFavoriteArtisans());
         dto.setRecentlyViewedProducts(buyer.getRecentlyViewedProducts());
-        dto.setWishlist(buyer.getWhishList());
+        return dto;
+    }
+
+    // Wishlist items live in their own collection; single-buyer reads include them for compatibility
+    private BuyerDTO withWishlist(BuyerDTO dto) {
+        dto.setWishlist(wishlistService.getWishlist(dto.getId()));
         return dto;
     }
 }
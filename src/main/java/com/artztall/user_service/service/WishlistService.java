@@ -0,0 +1,400 @@
+package com.artztall.user_service.service;
+
+import com.artztall.user_service.dto.CursorPage;
+import com.artztall.user_service.dto.WishlistCountDTO;
+import com.artztall.user_service.dto.WishlistOperation;
+import com.artztall.user_service.dto.WishlistOperationResult;
+import com.artztall.user_service.exception.InvalidCursorException;
+import com.artztall.user_service.model.Buyer;
+import com.artztall.user_service.model.ProductWishlistCount;
+import com.artztall.user_service.model.WishListItem;
+import com.artztall.user_service.model.WishlistEntry;
+import com.artztall.user_service.repository.BuyerRepository;
+import com.artztall.user_service.repository.ProductWishlistCountRepository;
+import com.artztall.user_service.repository.WishlistEntryRepository;
+import com.artztall.user_service.util.CursorCodec;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Wishlist operations backed by the {@code wishlist_items} collection, one document per buyer and product.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class WishlistService {
+
+    // Items migrated without an addedOn date sort before everything else
+    private static final LocalDateTime UNKNOWN_ADDED_ON = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final WishlistEntryRepository wishlistEntryRepository;
+    private final BuyerRepository buyerRepository;
+    private final ProductWishlistCountRepository productWishlistCountRepository;
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * Adds the item unless the product is already wishlisted; the unique (buyerId, productId) index
+     * makes concurrent adds of the same product collapse into one document.
+     *
+     * @return the outcome for the product; the rest of the wishlist is not read
+     */
+    public WishlistOperationResult addItem(String buyerId, WishListItem wishListItem) {
+        requireBuyer(buyerId);
+
+        // Set the current timestamp if not already set
+        if (wishListItem.getAddedOn() == null) {
+            wishListItem.setAddedOn(LocalDateTime.now());
+        }
+        if (!insertIfAbsent(buyerId, wishListItem)) {
+            return new WishlistOperationResult(wishListItem.getProductId(), WishlistOperation.Type.ADD,
+                    WishlistOperationResult.Status.ALREADY_PRESENT);
+        }
+        adjustProductCount(wishListItem.getProductId(), 1);
+        return new WishlistOperationResult(wishListItem.getProductId(), WishlistOperation.Type.ADD,
+                WishlistOperationResult.Status.ADDED);
+    }
+
+    /**
+     * @return the outcome for the product; the rest of the wishlist is not read
+     */
+    public WishlistOperationResult removeItem(String buyerId, String productId) {
+        requireBuyer(buyerId);
+        if (mongoTemplate.remove(entryQuery(buyerId, productId), WishlistEntry.class).getDeletedCount() == 0) {
+            return new WishlistOperationResult(productId, WishlistOperation.Type.REMOVE,
+                    WishlistOperationResult.Status.NOT_FOUND);
+        }
+        adjustProductCount(productId, -1);
+        return new WishlistOperationResult(productId, WishlistOperation.Type.REMOVE,
+                WishlistOperationResult.Status.REMOVED);
+    }
+
+    /**
+     * Applies many add/remove operations for one buyer in order, with one read of the affected products and
+     * one ordered bulk write, inside a single transaction.
+     *
+     * @return one result per operation, in request order
+     */
+    @Transactional
+    public List<WishlistOperationResult> applyBatch(String buyerId, List<WishlistOperation> operations) {
+        requireBuyer(buyerId);
+
+        Set<String> productIds = new HashSet<>();
+        for (WishlistOperation operation : operations) {
+            productIds.add(operation.getProductId());
+        }
+        Query existingQuery = Query.query(where("buyerId").is(buyerId).and("productId").in(productIds));
+        existingQuery.fields().include("productId");
+        Set<String> initiallyPresent = new HashSet<>();
+        for (WishlistEntry entry : mongoTemplate.find(existingQuery, WishlistEntry.class)) {
+            initiallyPresent.add(entry.getProductId());
+        }
+
+        Set<String> present = new HashSet<>(initiallyPresent);
+        BulkOperations itemWrites = mongoTemplate.bulkOps(BulkOperations.BulkMode.ORDERED, WishlistEntry.class);
+        boolean hasItemWrites = false;
+        LocalDateTime now = LocalDateTime.now();
+        List<WishlistOperationResult> results = new ArrayList<>(operations.size());
+
+        for (WishlistOperation operation : operations) {
+            String productId = operation.getProductId();
+            WishlistOperationResult.Status status;
+            if (operation.getType() == WishlistOperation.Type.ADD) {
+                if (present.add(productId)) {
+                    itemWrites.upsert(entryQuery(buyerId, productId),
+                            insertOnlyUpdate(new WishListItem(productId, now, operation.getNote())));
+                    hasItemWrites = true;
+                    status = WishlistOperationResult.Status.ADDED;
+                } else {
+                    status = WishlistOperationResult.Status.ALREADY_PRESENT;
+                }
+            } else {
+                if (present.remove(productId)) {
+                    itemWrites.remove(entryQuery(buyerId, productId));
+                    hasItemWrites = true;
+                    status = WishlistOperationResult.Status.REMOVED;
+                } else {
+                    status = WishlistOperationResult.Status.NOT_FOUND;
+                }
+            }
+            results.add(new WishlistOperationResult(productId, operation.getType(), status));
+        }
+
+        if (hasItemWrites) {
+            itemWrites.execute();
+            adjustProductCounts(productIds, initiallyPresent, present);
+        }
+        return results;
+    }
+
+    public List<WishListItem> getWishlist(String buyerId) {
+        List<WishListItem> items = new ArrayList<>();
+        for (WishlistEntry entry : wishlistEntryRepository.findByBuyerIdOrderByAddedOnAscIdAsc(buyerId)) {
+            items.add(toItem(entry));
+        }
+        if (items.isEmpty()) {
+            requireBuyer(buyerId);
+        }
+        return items;
+    }
+
+    /**
+     * Returns one page of the wishlist ordered by {@code addedOn}, seeking past the last item of the previous
+     * page through the (buyerId, addedOn, _id) index rather than skipping.
+     */
+    public CursorPage<WishListItem> getWishlistPage(String buyerId, String cursor, int size, Sort.Direction direction) {
+        Criteria criteria = where("buyerId").is(buyerId);
+        if (cursor != null) {
+            criteria = criteria.andOperator(afterCursor(cursor, direction));
+        }
+
+        Query query = Query.query(criteria)
+                .with(Sort.by(direction, "addedOn", "_id"))
+                .limit(size + 1);
+        List<WishlistEntry> entries = mongoTemplate.find(query, WishlistEntry.class);
+
+        if (entries.isEmpty() && cursor == null) {
+            requireBuyer(buyerId);
+        }
+
+        boolean hasNext = entries.size() > size;
+        List<WishlistEntry> window = hasNext ? entries.subList(0, size) : entries;
+        List<WishListItem> items = new ArrayList<>(window.size());
+        for (WishlistEntry entry : window) {
+            items.add(toItem(entry));
+        }
+
+        String nextCursor = null;
+        if (hasNext) {
+            WishlistEntry last = window.get(window.size() - 1);
+            nextCursor = CursorCodec.encode(direction.name(), last.getAddedOn().toString(), last.getId());
+        }
+        return new CursorPage<>(items, nextCursor, hasNext);
+    }
+
+    public WishlistCountDTO getProductWishlistCount(String productId) {
+        long count = productWishlistCountRepository.findById(productId)
+                .map(ProductWishlistCount::getCount)
+                .orElse(0L);
+        return new WishlistCountDTO(productId, Math.max(count, 0));
+    }
+
+    /**
+     * Returns the IDs of buyers that wishlisted the product, in buyer ID order, using the (productId, buyerId) index.
+     */
+    public CursorPage<String> getBuyersWithProduct(String productId, String cursor, int size) {
+        Criteria criteria = where("productId").is(productId);
+        if (cursor != null) {
+            criteria = criteria.and("buyerId").gt(CursorCodec.decode(cursor, 1)[0]);
+        }
+
+        Query query = Query.query(criteria)
+                .with(Sort.by(Sort.Direction.ASC, "buyerId"))
+                .limit(size + 1);
+        query.fields().include("buyerId");
+        List<WishlistEntry> entries = mongoTemplate.find(query, WishlistEntry.class);
+
+        boolean hasNext = entries.size() > size;
+        List<String> buyerIds = new ArrayList<>(Math.min(entries.size(), size));
+        for (WishlistEntry entry : hasNext ? entries.subList(0, size) : entries) {
+            buyerIds.add(entry.getBuyerId());
+        }
+        String nextCursor = hasNext ? CursorCodec.encode(buyerIds.get(buyerIds.size() - 1)) : null;
+        return new CursorPage<>(buyerIds, nextCursor, hasNext);
+    }
+
+    /**
+     * Repairs product counters from {@code wishlist_items}, e.g. after the migration or if an increment was lost
+     * between an item write and its counter write.
+     * <p>
+     * Safe to run while wishlists are being changed: wrong counters are corrected with {@code $inc} deltas taken
+     * from a fresh per-product recount, never overwritten, and a counter is only deleted if no item references
+     * its product and its value has not changed since it was read. A write to the same product racing with its
+     * correction can still leave that one counter off by one until the next run.
+     *
+     * @return the number of counters corrected or deleted
+     */
+    public long rebuildProductCounts() {
+        long corrected = 0;
+        Aggregation grouped = Aggregation.newAggregation(Aggregation.group("productId").count().as("count"));
+        try (Stream<Document> counts = mongoTemplate.aggregateStream(grouped, "wishlist_items", Document.class)) {
+            var iterator = counts.iterator();
+            while (iterator.hasNext()) {
+                Document group = iterator.next();
+                String productId = group.getString("_id");
+                if (productId != null && reconcileProductCount(productId, ((Number) group.get("count")).longValue())) {
+                    corrected++;
+                }
+            }
+        }
+
+        // Counters of products that no longer appear in any wishlist
+        try (Stream<ProductWishlistCount> counters = mongoTemplate.stream(
+                Query.query(where("count").ne(0)), ProductWishlistCount.class)) {
+            var iterator = counters.iterator();
+            while (iterator.hasNext()) {
+                ProductWishlistCount counter = iterator.next();
+                if (!mongoTemplate.exists(Query.query(where("productId").is(counter.getProductId())), WishlistEntry.class)
+                        && mongoTemplate.remove(Query.query(where("_id").is(counter.getProductId())
+                        .and("count").is(counter.getCount())), ProductWishlistCount.class).getDeletedCount() > 0) {
+                    corrected++;
+                }
+            }
+        }
+        log.info("Repaired product wishlist counters, {} corrected", corrected);
+        return corrected;
+    }
+
+    private boolean reconcileProductCount(String productId, long groupedCount) {
+        if (storedProductCount(productId) == groupedCount) {
+            return false;
+        }
+        // The grouped count may be stale by now, so the correction is based on a fresh, indexed recount
+        long actual = mongoTemplate.count(Query.query(where("productId").is(productId)), WishlistEntry.class);
+        long delta = actual - storedProductCount(productId);
+        if (delta == 0) {
+            return false;
+        }
+        adjustProductCount(productId, delta);
+        return true;
+    }
+
+    private long storedProductCount(String productId) {
+        ProductWishlistCount counter = mongoTemplate.findById(productId, ProductWishlistCount.class);
+        return counter != null ? counter.getCount() : 0;
+    }
+
+    /**
+     * Moves the wishlist items still embedded in buyer documents into {@code wishlist_items}, one buyer at a
+     * time, and removes the embedded array once its items are stored. Safe to re-run.
+     *
+     * @return the number of embedded items processed
+     */
+    public long migrateEmbeddedItems() {
+        Query query = Query.query(where("whishList.0").exists(true));
+        query.fields().include("whishList");
+
+        long migrated = 0;
+        try (Stream<Buyer> buyers = mongoTemplate.stream(query, Buyer.class)) {
+            var iterator = buyers.iterator();
+            while (iterator.hasNext()) {
+                Buyer buyer = iterator.next();
+                migrated += migrateBuyer(buyer);
+            }
+        }
+        log.info("Wishlist migration complete, {} embedded items processed", migrated);
+        return migrated;
+    }
+
+    private int migrateBuyer(Buyer buyer) {
+        BulkOperations operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, WishlistEntry.class);
+        int count = 0;
+        for (WishListItem item : buyer.getWhishList()) {
+            if (item == null || item.getProductId() == null) {
+                continue;
+            }
+            operations.upsert(entryQuery(buyer.getId(), item.getProductId()), insertOnlyUpdate(item));
+            count++;
+        }
+        if (count > 0) {
+            operations.execute();
+        }
+        mongoTemplate.updateFirst(Query.query(where("_id").is(buyer.getId())), new Update().unset("whishList"), Buyer.class);
+        return count;
+    }
+
+    private boolean insertIfAbsent(String buyerId, WishListItem item) {
+        try {
+            return mongoTemplate.upsert(entryQuery(buyerId, item.getProductId()), insertOnlyUpdate(item), WishlistEntry.class)
+                    .getUpsertedId() != null;
+        } catch (DuplicateKeyException e) {
+            // A concurrent request inserted the same product first
+            return false;
+        }
+    }
+
+    private void adjustProductCount(String productId, long delta) {
+        mongoTemplate.upsert(
+                Query.query(where("_id").is(productId)),
+                new Update().inc("count", delta),
+                ProductWishlistCount.class
+        );
+    }
+
+    private void adjustProductCounts(Set<String> productIds, Set<String> before, Set<String> after) {
+        BulkOperations counterWrites = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ProductWishlistCount.class);
+        boolean hasCounterWrites = false;
+        for (String productId : productIds) {
+            int delta = (after.contains(productId) ? 1 : 0) - (before.contains(productId) ? 1 : 0);
+            if (delta != 0) {
+                counterWrites.upsert(Query.query(where("_id").is(productId)), new Update().inc("count", delta));
+                hasCounterWrites = true;
+            }
+        }
+        if (hasCounterWrites) {
+            counterWrites.execute();
+        }
+    }
+
+    private Update insertOnlyUpdate(WishListItem item) {
+        return new Update()
+                .setOnInsert("addedOn", item.getAddedOn() != null ? item.getAddedOn() : UNKNOWN_ADDED_ON)
+                .setOnInsert("note", item.getNote());
+    }
+
+    private Query entryQuery(String buyerId, String productId) {
+        return Query.query(where("buyerId").is(buyerId).and("productId").is(productId));
+    }
+
+    private Criteria afterCursor(String cursor, Sort.Direction direction) {
+        String[] parts = CursorCodec.decode(cursor, 3);
+        if (!direction.name().equals(parts[0])) {
+            throw new InvalidCursorException("Cursor was issued for a different sort direction");
+        }
+        LocalDateTime addedOn;
+        try {
+            addedOn = LocalDateTime.parse(parts[1]);
+        } catch (DateTimeParseException e) {
+            throw new InvalidCursorException("Invalid cursor: " + cursor);
+        }
+
+        if (direction == Sort.Direction.ASC) {
+            return new Criteria().orOperator(
+                    where("addedOn").gt(addedOn),
+                    where("addedOn").is(addedOn).and("_id").gt(parts[2]));
+        }
+        return new Criteria().orOperator(
+                where("addedOn").lt(addedOn),
+                where("addedOn").is(addedOn).and("_id").lt(parts[2]));
+    }
+
+    private void requireBuyer(String buyerId) {
+        if (!buyerRepository.existsById(buyerId)) {
+            throw new RuntimeException("Buyer not found");
+        }
+    }
+
+    static WishListItem toItem(WishlistEntry entry) {
+        return new WishListItem(entry.getProductId(), entry.getAddedOn(), entry.getNote());
+    }
+}
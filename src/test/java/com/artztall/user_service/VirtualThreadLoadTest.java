@@ -0,0 +1,114 @@
+package com.artztall.user_service;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Compares throughput and tail latency of two running instances, one started with
+ * {@code spring.threads.virtual.enabled=false} and one with {@code true}, against the same database.
+ * <p>
+ * Excluded from the default build; run with
+ * {@code mvn test -Pload-test -Dload.platform-url=http://host:8081 -Dload.virtual-url=http://host:8082}.
+ * Optional: {@code load.path} (default {@code /api/users/artisans/page?size=20}), {@code load.concurrency}
+ * (default 1000) and {@code load.requests} (default 20000).
+ */
+@Tag("load")
+class VirtualThreadLoadTest {
+
+    private static final String PATH = System.getProperty("load.path", "/api/users/artisans/page?size=20");
+    private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 1000);
+    private static final int REQUESTS = Integer.getInteger("load.requests", 20000);
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    @Test
+    void compareThreadModes() throws Exception {
+        String platformUrl = System.getProperty("load.platform-url");
+        String virtualUrl = System.getProperty("load.virtual-url");
+        assumeTrue(platformUrl != null && virtualUrl != null, "load.platform-url and load.virtual-url are required");
+
+        // Warm both instances up so JIT and connection pools do not skew the first run
+        run(platformUrl, CONCURRENCY, REQUESTS / 10);
+        run(virtualUrl, CONCURRENCY, REQUESTS / 10);
+
+        Result platform = run(platformUrl, CONCURRENCY, REQUESTS);
+        Result virtual = run(virtualUrl, CONCURRENCY, REQUESTS);
+
+        System.out.printf("%-10s %12s %10s %10s %8s%n", "mode", "req/s", "p50 ms", "p99 ms", "errors");
+        platform.print("platform");
+        virtual.print("virtual");
+
+        assertEquals(0, platform.errors, "platform instance returned errors");
+        assertEquals(0, virtual.errors, "virtual instance returned errors");
+    }
+
+    private Result run(String baseUrl, int concurrency, int requests) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + PATH))
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>(requests));
+        AtomicInteger remaining = new AtomicInteger(requests);
+        AtomicInteger errors = new AtomicInteger();
+
+        long start = System.nanoTime();
+        // Virtual client threads so the driver itself is never the bottleneck
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> workers = new ArrayList<>(concurrency);
+            for (int i = 0; i < concurrency; i++) {
+                workers.add(clients.submit(() -> {
+                    while (remaining.getAndDecrement() > 0) {
+                        long sent = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != 200) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                        latencies.add(System.nanoTime() - sent);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+        return new Result(requests * 1_000_000_000.0 / elapsed, percentile(sorted, 0.50), percentile(sorted, 0.99), errors.get());
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1_000_000.0;
+    }
+
+    private record Result(double throughput, double p50Millis, double p99Millis, int errors) {
+
+        void print(String mode) {
+            System.out.printf("%-10s %12.1f %10.2f %10.2f %8d%n", mode, throughput, p50Millis, p99Millis, errors);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.artztall.user_service.changestream;
+
+import com.artztall.user_service.model.Artisan;
+import com.artztall.user_service.model.UserType;
+import com.mongodb.MongoNamespace;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import org.bson.BsonDocument;
+import org.bson.BsonObjectId;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class UserChangeStreamListenerTest {
+
+    @InjectMocks
+    private UserChangeStreamListener listener;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private ResumeTokenStore resumeTokenStore;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private MongoConverter converter;
+
+    private final ObjectId artisanId = new ObjectId();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(mongoTemplate.getConverter()).thenReturn(converter);
+    }
+
+    @Test
+    void testUpdatePublishesChangedUser() {
+        Document fullDocument = new Document("_id", artisanId).append("name", "Test Artisan");
+        Artisan artisan = new Artisan();
+        artisan.setId(artisanId.toHexString());
+        when(converter.read(Artisan.class, fullDocument)).thenReturn(artisan);
+
+        listener.handle(change(OperationType.UPDATE, fullDocument));
+
+        ArgumentCaptor<UserChangedEvent> event = ArgumentCaptor.forClass(UserChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(UserType.ARTISAN, event.getValue().userType());
+        assertEquals(artisanId.toHexString(), event.getValue().userId());
+        assertSame(artisan, event.getValue().user());
+    }
+
+    @Test
+    void testDeletePublishesDeletedUser() {
+        listener.handle(change(OperationType.DELETE, null));
+
+        ArgumentCaptor<UserChangedEvent> event = ArgumentCaptor.forClass(UserChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertTrue(event.getValue().deleted());
+        verifyNoInteractions(converter);
+    }
+
+    @Test
+    void testDropResetsCachesAndForgetsToken() {
+        listener.handle(change(OperationType.DROP, null));
+
+        verify(resumeTokenStore).clear(UserChangeStreamListener.STREAM_NAME);
+        verify(eventPublisher).publishEvent(any(UserCachesResetEvent.class));
+    }
+
+    @Test
+    void testUnreadableChangeFlushesCachesInsteadOfStoppingTheWorker() {
+        Document fullDocument = new Document("_id", artisanId);
+        when(converter.read(eq(Artisan.class), any(Document.class))).thenThrow(new IllegalStateException("bad field"));
+
+        assertDoesNotThrow(() -> listener.handleSafely(change(OperationType.UPDATE, fullDocument)));
+
+        verify(eventPublisher, never()).publishEvent(any(UserChangedEvent.class));
+        verify(eventPublisher).publishEvent(any(UserCachesResetEvent.class));
+        verify(resumeTokenStore, never()).clear(anyString());
+    }
+
+    @Test
+    void testStandaloneServerFailsFast() {
+        when(mongoTemplate.executeCommand(any(Document.class))).thenReturn(new Document("isWritablePrimary", true));
+
+        IllegalStateException ex = assertThrows(IllegalStateException.class, () -> listener.start());
+
+        assertTrue(ex.getMessage().contains("replica set"));
+        assertFalse(listener.isRunning());
+    }
+
+    @Test
+    void testReplicaSetAndShardedClusterAreSupported() {
+        when(mongoTemplate.executeCommand(any(Document.class))).thenReturn(new Document("setName", "rs0"));
+        assertDoesNotThrow(() -> listener.requireChangeStreamSupport());
+
+        when(mongoTemplate.executeCommand(any(Document.class))).thenReturn(new Document("msg", "isdbgrid"));
+        assertDoesNotThrow(() -> listener.requireChangeStreamSupport());
+    }
+
+    @SuppressWarnings("unchecked")
+    private ChangeStreamDocument<Document> change(OperationType operationType, Document fullDocument) {
+        ChangeStreamDocument<Document> change = mock(ChangeStreamDocument.class);
+        when(change.getOperationType()).thenReturn(operationType);
+        when(change.getOperationTypeString()).thenReturn(operationType.getValue());
+        when(change.getNamespace()).thenReturn(new MongoNamespace("artztall_users_db", "artisans"));
+        when(change.getDocumentKey()).thenReturn(new BsonDocument("_id", new BsonObjectId(artisanId)));
+        when(change.getFullDocument()).thenReturn(fullDocument);
+        return change;
+    }
+}
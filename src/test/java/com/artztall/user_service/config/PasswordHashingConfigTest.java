@@ -0,0 +1,76 @@
+package com.artztall.user_service.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHashingConfigTest {
+
+    @Test
+    void testLegacyBcryptHashStillMatchesAndIsUpgradedWhenEnabled() {
+        String legacyHash = new BCryptPasswordEncoder(4).encode("password");
+        PasswordEncoder encoder = encoder(PasswordHashingConfig.PBKDF2, true);
+
+        assertTrue(encoder.matches("password", legacyHash));
+        assertTrue(encoder.upgradeEncoding(legacyHash));
+    }
+
+    @Test
+    void testLegacyBcryptHashAtTargetCostIsNotRehashed() {
+        String legacyHash = new BCryptPasswordEncoder(4).encode("password");
+        PasswordEncoder encoder = encoder(PasswordHashingConfig.PBKDF2, false);
+
+        assertTrue(encoder.matches("password", legacyHash));
+        assertFalse(encoder.upgradeEncoding(legacyHash));
+    }
+
+    @Test
+    void testWeakLegacyBcryptHashIsStillRehashed() {
+        PasswordHashingConfig config = config(PasswordHashingConfig.BCRYPT, false);
+        ReflectionTestUtils.setField(config, "bcryptStrength", 5);
+        PasswordEncoder encoder = config.passwordEncoder();
+
+        assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("password")));
+        assertFalse(encoder.upgradeEncoding(new BCryptPasswordEncoder(5).encode("password")));
+        assertTrue(encoder.upgradeEncoding("{bcrypt}" + new BCryptPasswordEncoder(4).encode("password")));
+    }
+
+    @Test
+    void testNewHashesUseConfiguredAlgorithm() {
+        PasswordEncoder encoder = encoder(PasswordHashingConfig.PBKDF2);
+
+        String hash = encoder.encode("password");
+
+        assertTrue(hash.startsWith("{pbkdf2}"));
+        assertTrue(encoder.matches("password", hash));
+        assertFalse(encoder.upgradeEncoding(hash));
+    }
+
+    @Test
+    void testUnknownAlgorithmFailsFast() {
+        assertThrows(IllegalStateException.class, () -> encoder("md5"));
+    }
+
+    private PasswordEncoder encoder(String algorithm) {
+        return encoder(algorithm, false);
+    }
+
+    private PasswordEncoder encoder(String algorithm, boolean upgradeLegacy) {
+        return config(algorithm, upgradeLegacy).passwordEncoder();
+    }
+
+    private PasswordHashingConfig config(String algorithm, boolean upgradeLegacy) {
+        PasswordHashingConfig config = new PasswordHashingConfig();
+        ReflectionTestUtils.setField(config, "upgradeLegacy", upgradeLegacy);
+        ReflectionTestUtils.setField(config, "algorithm", algorithm);
+        ReflectionTestUtils.setField(config, "bcryptStrength", 4);
+        ReflectionTestUtils.setField(config, "argon2MemoryKb", 1024);
+        ReflectionTestUtils.setField(config, "argon2Iterations", 1);
+        ReflectionTestUtils.setField(config, "argon2Parallelism", 1);
+        ReflectionTestUtils.setField(config, "pbkdf2Iterations", 1000);
+        return config;
+    }
+}
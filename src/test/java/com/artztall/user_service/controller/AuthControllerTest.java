@@ -2,8 +2,16 @@ package com.artztall.user_service.controller;
 
 import com.artztall.user_service.dto.AuthResponse;
 import com.artztall.user_service.dto.LoginRequest;
+import com.artztall.user_service.dto.RefreshTokenRequest;
 import com.artztall.user_service.dto.SignupRequest;
+import com.artztall.user_service.exception.InvalidTokenException;
+import com.artztall.user_service.exception.TooManyRequestsException;
+import com.artztall.user_service.security.AuthFailureRecorder;
 import com.artztall.user_service.security.JwtTokenProvider;
+import com.artztall.user_service.security.LoginRateLimiter;
+import com.artztall.user_service.security.PasswordHashingExecutor;
+import com.artztall.user_service.security.TokenRevocationRegistry;
+import com.artztall.user_service.security.VerifiedTokenCache;
 import com.artztall.user_service.service.AuthService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import net.datafaker.Faker;
@@ -19,12 +27,18 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.when;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
 
 
 @WebMvcTest(AuthController.class)
@@ -48,10 +62,29 @@ class AuthControllerTest {
     @MockBean
     private UserDetailsService userDetailsService;
 
+    @MockBean
+    private TokenRevocationRegistry tokenRevocationRegistry;
+
+    @MockBean
+    private PasswordHashingExecutor passwordHashingExecutor;
+
+    @MockBean
+    private LoginRateLimiter loginRateLimiter;
+
+    @MockBean
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @MockBean
+    private AuthFailureRecorder authFailureRecorder;
+
 
     @BeforeEach
     void setUp() {
         faker = new Faker();
+
+        // Run hashing work inline; the controller still completes through an async dispatch
+        when(passwordHashingExecutor.submit(any())).thenAnswer(invocation ->
+                CompletableFuture.completedFuture(invocation.<Supplier<?>>getArgument(0).get()));
     }
 
     @Nested
@@ -70,9 +103,13 @@ class AuthControllerTest {
                     .thenReturn(mockAuthResponse);
 
             // Perform request and validate
-            mockMvc.perform(post("/api/auth/signup")
+            MvcResult result = mockMvc.perform(post("/api/auth/signup")
                             .contentType(MediaType.APPLICATION_JSON)
                             .content(objectMapper.writeValueAsString(signupRequest)))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            mockMvc.perform(asyncDispatch(result))
                     .andExpect(status().isOk())
                     .andExpect(jsonPath("$.email").value(signupRequest.getEmail()))
                     .andExpect(jsonPath("$.token").isNotEmpty());
@@ -92,9 +129,13 @@ class AuthControllerTest {
                     .thenReturn(mockAuthResponse);
 
             // Perform request and validate
-            mockMvc.perform(post("/api/auth/signup")
+            MvcResult result = mockMvc.perform(post("/api/auth/signup")
                             .contentType(MediaType.APPLICATION_JSON)
                             .content(objectMapper.writeValueAsString(signupRequest)))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            mockMvc.perform(asyncDispatch(result))
                     .andExpect(status().isOk())
                     .andExpect(jsonPath("$.email").value(signupRequest.getEmail()))
                     .andExpect(jsonPath("$.token").isNotEmpty());
@@ -127,6 +168,65 @@ class AuthControllerTest {
         }
     }
 
+    @Test
+    @DisplayName("Login Rejected When Hashing Queue Is Full")
+    void testLoginRejectedWhenQueueFull() throws Exception {
+        when(passwordHashingExecutor.submit(any())).thenThrow(new RejectedExecutionException("queue full"));
+
+        mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createValidLoginRequest())))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+    }
+
+    @Test
+    @DisplayName("Login Throttled By Rate Limiter")
+    void testLoginThrottled() throws Exception {
+        doThrow(new TooManyRequestsException("Too many login attempts, retry later", 12))
+                .when(loginRateLimiter).acquire(anyString(), anyString());
+
+        mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createValidLoginRequest())))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "12"))
+                .andExpect(jsonPath("$.fieldErrors[0].field").value("request"));
+        verifyNoInteractions(passwordHashingExecutor);
+    }
+
+    @Test
+    @DisplayName("Refresh Returns New Token Pair")
+    void testRefresh() throws Exception {
+        RefreshTokenRequest request = new RefreshTokenRequest();
+        request.setRefreshToken(faker.random().hex(40));
+        AuthResponse response = createMockAuthResponseForLogin(createValidLoginRequest());
+        response.setRefreshToken(faker.random().hex(40));
+        when(authService.refresh(request.getRefreshToken())).thenReturn(response);
+
+        mockMvc.perform(post("/api/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token").value(response.getToken()))
+                .andExpect(jsonPath("$.refreshToken").value(response.getRefreshToken()));
+    }
+
+    @Test
+    @DisplayName("Refresh With Used Token Is Unauthorized")
+    void testRefreshWithUsedToken() throws Exception {
+        RefreshTokenRequest request = new RefreshTokenRequest();
+        request.setRefreshToken(faker.random().hex(40));
+        when(authService.refresh(request.getRefreshToken()))
+                .thenThrow(new InvalidTokenException("Refresh token has been revoked"));
+
+        mockMvc.perform(post("/api/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.fieldErrors[0].field").value("refreshToken"));
+    }
+
     @Nested
     class LoginTests {
         @Test
@@ -143,9 +243,13 @@ class AuthControllerTest {
                     .thenReturn(mockAuthResponse);
 
             // Perform request and validate
-            mockMvc.perform(post("/api/auth/login")
+            MvcResult result = mockMvc.perform(post("/api/auth/login")
                             .contentType(MediaType.APPLICATION_JSON)
                             .content(objectMapper.writeValueAsString(loginRequest)))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            mockMvc.perform(asyncDispatch(result))
                     .andExpect(status().isOk())
                     .andExpect(jsonPath("$.email").value(loginRequest.getEmail()))
                     .andExpect(jsonPath("$.token").isNotEmpty());
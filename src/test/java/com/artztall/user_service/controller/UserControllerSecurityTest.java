@@ -0,0 +1,115 @@
+package com.artztall.user_service.controller;
+
+import com.artztall.user_service.config.SecurityConfig;
+import com.artztall.user_service.dto.BuyerDTO;
+import com.artztall.user_service.security.AuthFailureRecorder;
+import com.artztall.user_service.security.JwtAuthenticationEntryPoint;
+import com.artztall.user_service.security.JwtPrincipal;
+import com.artztall.user_service.security.TokenRevocationRegistry;
+import com.artztall.user_service.security.VerifiedTokenCache;
+import com.artztall.user_service.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Runs the real security filter chain, unlike UserControllerTest. Actuator endpoints live on the management port
+@WebMvcTest(controllers = UserController.class, properties = "jwt.trusted-claims.enabled=true")
+@Import({SecurityConfig.class, JwtAuthenticationEntryPoint.class})
+class UserControllerSecurityTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private UserService userService;
+
+    @MockBean
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @MockBean
+    private UserDetailsService userDetailsService;
+
+    @MockBean
+    private TokenRevocationRegistry revocationRegistry;
+
+    @MockBean
+    private AuthFailureRecorder failureRecorder;
+
+    @BeforeEach
+    void setUp() {
+        when(verifiedTokenCache.parseToken("buyer-token")).thenReturn(Optional.of(principal("buyer-id", "ROLE_BUYER")));
+        when(verifiedTokenCache.parseToken("admin-token")).thenReturn(Optional.of(principal("admin-id", "ROLE_ADMIN")));
+        when(userService.deactivateBuyer(anyString())).thenReturn(new BuyerDTO());
+        when(userService.getBuyerById("buyer-id")).thenReturn(new BuyerDTO());
+    }
+
+    @Test
+    void testAnonymousDeactivationIsRejected() throws Exception {
+        mockMvc.perform(put("/api/users/buyers/buyer-id/deactivate"))
+                .andExpect(status().isUnauthorized());
+
+        verify(userService, never()).deactivateBuyer(anyString());
+        verify(userService, never()).deactivateArtisan(anyString());
+    }
+
+    @Test
+    void testDeactivatingAnotherAccountIsForbidden() throws Exception {
+        mockMvc.perform(put("/api/users/buyers/other-id/deactivate")
+                        .header("Authorization", "Bearer buyer-token"))
+                .andExpect(status().isForbidden());
+
+        verify(userService, never()).deactivateBuyer(anyString());
+    }
+
+    @Test
+    void testOwnerCanDeactivateTheirAccount() throws Exception {
+        mockMvc.perform(put("/api/users/buyers/buyer-id/deactivate")
+                        .header("Authorization", "Bearer buyer-token"))
+                .andExpect(status().isOk());
+
+        verify(userService, times(1)).deactivateBuyer("buyer-id");
+    }
+
+    @Test
+    void testAdminCanDeactivateAnyAccount() throws Exception {
+        mockMvc.perform(put("/api/users/buyers/other-id/deactivate")
+                        .header("Authorization", "Bearer admin-token"))
+                .andExpect(status().isOk());
+
+        verify(userService, times(1)).deactivateBuyer("other-id");
+    }
+
+    @Test
+    void testReadsStayPublic() throws Exception {
+        mockMvc.perform(get("/api/users/buyers/buyer-id"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testMetricsAreNotPublicOnTheApplicationPort() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/actuator/prometheus")
+                        .header("Authorization", "Bearer admin-token"))
+                .andExpect(status().isForbidden());
+    }
+
+    private static JwtPrincipal principal(String id, String role) {
+        Instant issuedAt = Instant.now().minusSeconds(60);
+        return new JwtPrincipal(id + "@example.com", id, role, issuedAt, issuedAt.plusSeconds(900), "jti-" + id);
+    }
+}
@@ -17,14 +17,19 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -76,6 +81,43 @@ class UserControllerTest {
                     .andExpect(jsonPath("$.content.length()").value(5));
         }
 
+        @Test
+        @DisplayName("Get All Artisans with Sparse Fields")
+        void testGetAllArtisansSparseFields() throws Exception {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("id", faker.random().hex(10));
+            row.put("name", faker.name().fullName());
+            Page<Map<String, Object>> mockPage = new PageImpl<>(List.of(row), PageRequest.of(0, 5), 1);
+
+            when(userService.getAllArtisans(any(Pageable.class), eq(Set.of("id", "name"))))
+                    .thenReturn(mockPage);
+
+            mockMvc.perform(get("/api/users/artisans")
+                            .param("fields", "id,name"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content[0].name").value(row.get("name")))
+                    .andExpect(jsonPath("$.content[0].email").doesNotExist());
+        }
+
+        @Test
+        @DisplayName("Get Artisans Page by Cursor")
+        void testGetArtisansPage() throws Exception {
+            List<ArtisanDTO> artisanList = IntStream.range(0, 3)
+                    .mapToObj(i -> createMockArtisanDTO())
+                    .collect(Collectors.toList());
+            String nextCursor = faker.random().hex(16);
+
+            when(userService.getArtisansPage(null, 3, Sort.Direction.ASC))
+                    .thenReturn(new CursorPage<>(artisanList, nextCursor, true));
+
+            mockMvc.perform(get("/api/users/artisans/page")
+                            .param("size", "3"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content.length()").value(3))
+                    .andExpect(jsonPath("$.nextCursor").value(nextCursor))
+                    .andExpect(jsonPath("$.hasNext").value(true));
+        }
+
         @Test
         @DisplayName("Get Artisan by ID")
         void testGetArtisanById() throws Exception {
@@ -94,6 +136,28 @@ class UserControllerTest {
                     .andExpect(jsonPath("$.name").value(mockArtisan.getName()));
         }
 
+        @Test
+        @DisplayName("Look Up Artisans by ID")
+        void testLookupArtisans() throws Exception {
+            ArtisanDTO mockArtisan = createMockArtisanDTO();
+            String missingId = faker.random().hex(10);
+            UserLookupRequest lookupRequest = new UserLookupRequest();
+            lookupRequest.setIds(List.of(mockArtisan.getId(), missingId));
+
+            Map<String, UserLookupResult<ArtisanDTO>> results = new LinkedHashMap<>();
+            results.put(mockArtisan.getId(), UserLookupResult.found(mockArtisan));
+            results.put(missingId, UserLookupResult.notFound());
+            when(userService.lookupArtisans(lookupRequest.getIds())).thenReturn(results);
+
+            mockMvc.perform(post("/api/users/artisans/lookup")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(lookupRequest)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$['" + mockArtisan.getId() + "'].found").value(true))
+                    .andExpect(jsonPath("$['" + mockArtisan.getId() + "'].user.name").value(mockArtisan.getName()))
+                    .andExpect(jsonPath("$['" + missingId + "'].found").value(false));
+        }
+
         @Test
         @DisplayName("Update Artisan Profile")
         void testUpdateArtisan() throws Exception {
@@ -0,0 +1,67 @@
+package com.artztall.user_service.security;
+
+import com.artztall.user_service.config.JwtSigningProperties;
+import com.artztall.user_service.model.Artisan;
+import com.artztall.user_service.model.UserType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuthFailureRecorderTest {
+
+    private static final String SECRET = "test_jwt_secret_key_that_is_long_enough_for_hs384_signing_ok";
+
+    private SimpleMeterRegistry meterRegistry;
+    private JwtTokenProvider tokenProvider;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        tokenProvider = new JwtTokenProvider(new JwtKeyRing(new JwtSigningProperties(), SECRET),
+                new AuthFailureRecorder(meterRegistry));
+        ReflectionTestUtils.setField(tokenProvider, "jwtExpirationInMs", 60_000L);
+        ReflectionTestUtils.setField(tokenProvider, "refreshExpirationInMs", 120_000L);
+        tokenProvider.init();
+    }
+
+    @Test
+    void testRejectionsAreCountedByReason() {
+        String accessToken = tokenProvider.generateToken(userDetails());
+        String refreshToken = tokenProvider.generateRefreshToken(userDetails()).value();
+
+        assertTrue(tokenProvider.parseToken("not-a-jwt").isEmpty());
+        assertTrue(tokenProvider.parseToken("not-a-jwt").isEmpty());
+        assertTrue(tokenProvider.parseToken(accessToken.substring(0, accessToken.length() - 2) + "xx").isEmpty());
+        assertTrue(tokenProvider.parseToken(refreshToken).isEmpty());
+        assertTrue(tokenProvider.parseToken(accessToken).isPresent());
+
+        assertEquals(2, failures("malformed"));
+        assertEquals(1, failures("bad_signature"));
+        assertEquals(1, failures("wrong_type"));
+        assertEquals(0, failures("expired"));
+    }
+
+    @Test
+    void testLegacyAccessorsDoNotThrowOnInvalidTokens() {
+        assertNull(tokenProvider.getUsernameFromToken("not-a-jwt"));
+        assertNull(tokenProvider.getIdFromToken(""));
+        assertEquals(1, failures("malformed"));
+        assertEquals(1, failures("empty"));
+    }
+
+    private double failures(String reason) {
+        return meterRegistry.get("auth.token.failures").tag("reason", reason).counter().count();
+    }
+
+    private static UserDetailsImpl userDetails() {
+        Artisan artisan = new Artisan();
+        artisan.setId("artisan-id");
+        artisan.setEmail("user@example.com");
+        artisan.setUserType(UserType.ARTISAN);
+        artisan.setActive(true);
+        return new UserDetailsImpl(artisan);
+    }
+}
@@ -0,0 +1,106 @@
+package com.artztall.user_service.security;
+
+import com.artztall.user_service.config.JwtSigningProperties;
+import com.artztall.user_service.model.Artisan;
+import com.artztall.user_service.model.UserType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a request through {@link JwtAuthenticationFilter} in trusted-claims mode.
+ * <p>
+ * {@code warmCache} resends one token, so every request after the first is a cache hit. {@code coldCache} walks
+ * through distinct tokens and starts each iteration with an empty cache, so every request is a miss that verifies
+ * and then stores the token. The token pool is larger than one iteration consumes. Run with {@code main} or
+ * through the JMH runner of your IDE.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final String SECRET = "benchmark_jwt_secret_key_that_is_long_enough_for_hs384_signing";
+    private static final int COLD_TOKENS = 300_000;
+
+    private final AuthFailureRecorder failureRecorder = new AuthFailureRecorder(new SimpleMeterRegistry());
+
+    private JwtTokenProvider tokenProvider;
+    private String warmToken;
+    private String[] coldTokens;
+
+    private JwtAuthenticationFilter filter;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        tokenProvider = new JwtTokenProvider(new JwtKeyRing(new JwtSigningProperties(), SECRET), failureRecorder);
+        ReflectionTestUtils.setField(tokenProvider, "jwtExpirationInMs", 3_600_000L);
+        tokenProvider.init();
+
+        Artisan artisan = new Artisan();
+        artisan.setId("artisan-id");
+        artisan.setEmail("artisan@example.com");
+        artisan.setUserType(UserType.ARTISAN);
+        artisan.setActive(true);
+        UserDetailsImpl userDetails = new UserDetailsImpl(artisan);
+
+        warmToken = tokenProvider.generateToken(userDetails);
+        coldTokens = new String[COLD_TOKENS];
+        for (int i = 0; i < COLD_TOKENS; i++) {
+            coldTokens[i] = tokenProvider.generateToken(userDetails);
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void emptyCache() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(tokenProvider, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(cache, "enabled", true);
+        ReflectionTestUtils.setField(cache, "maxSize", (long) COLD_TOKENS);
+        cache.init();
+
+        filter = new JwtAuthenticationFilter(cache, null, new TokenRevocationRegistry(), failureRecorder);
+        ReflectionTestUtils.setField(filter, "trustedClaimsEnabled", true);
+        ReflectionTestUtils.setField(filter, "checkRevocation", true);
+        next = 0;
+    }
+
+    @Benchmark
+    public int coldCache() throws ServletException, IOException {
+        return filter(coldTokens[next++ % COLD_TOKENS]);
+    }
+
+    @Benchmark
+    public int warmCache() throws ServletException, IOException {
+        return filter(warmToken);
+    }
+
+    private int filter(String token) throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/artisans");
+        request.addHeader("Authorization", "Bearer " + token);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        SecurityContextHolder.clearContext();
+        return response.getStatus();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtAuthenticationFilterBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
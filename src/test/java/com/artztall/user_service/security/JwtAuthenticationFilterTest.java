@@ -0,0 +1,117 @@
+package com.artztall.user_service.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class JwtAuthenticationFilterTest {
+
+    @Mock
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Mock
+    private UserDetailsService userDetailsService;
+
+    private TokenRevocationRegistry revocationRegistry;
+    private JwtAuthenticationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        revocationRegistry = new TokenRevocationRegistry();
+        filter = new JwtAuthenticationFilter(verifiedTokenCache, userDetailsService, revocationRegistry,
+                new AuthFailureRecorder(new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(filter, "trustedClaimsEnabled", true);
+        ReflectionTestUtils.setField(filter, "checkRevocation", true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testTrustedClaimsAuthenticateWithoutLoadingTheUser() throws Exception {
+        JwtPrincipal principal = principal(Instant.now().minusSeconds(60));
+        when(verifiedTokenCache.parseToken("token")).thenReturn(Optional.of(principal));
+
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request("token"), new MockHttpServletResponse(), chain);
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertNotNull(chain.getRequest());
+        assertSame(principal, authentication.getPrincipal());
+        assertEquals("user-id", ((JwtPrincipal) authentication.getPrincipal()).id());
+        assertEquals(List.of("ROLE_BUYER"),
+                authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList());
+        verifyNoInteractions(userDetailsService);
+    }
+
+    @Test
+    void testTokenIssuedBeforeUserRevocationIsRejected() throws Exception {
+        when(verifiedTokenCache.parseToken("token")).thenReturn(Optional.of(principal(Instant.now().minusSeconds(60))));
+        revocationRegistry.revokeUser("user-id");
+
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request("token"), response, chain);
+
+        assertEquals(401, response.getStatus());
+        assertNull(chain.getRequest());
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    void testTokenIssuedAfterUserRevocationIsAccepted() throws Exception {
+        revocationRegistry.revokeUser("user-id");
+        when(verifiedTokenCache.parseToken("token")).thenReturn(Optional.of(principal(Instant.now().plusSeconds(1))));
+
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request("token"), new MockHttpServletResponse(), chain);
+
+        assertNotNull(chain.getRequest());
+        assertNotNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    void testRevocationIsSkippedWhenDisabled() throws Exception {
+        ReflectionTestUtils.setField(filter, "checkRevocation", false);
+        when(verifiedTokenCache.parseToken("token")).thenReturn(Optional.of(principal(Instant.now().minusSeconds(60))));
+        revocationRegistry.revokeUser("user-id");
+
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request("token"), new MockHttpServletResponse(), chain);
+
+        assertNotNull(chain.getRequest());
+        assertNotNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    private static MockHttpServletRequest request(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/buyers/user-id");
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+
+    private static JwtPrincipal principal(Instant issuedAt) {
+        return new JwtPrincipal("user@example.com", "user-id", "ROLE_BUYER", issuedAt,
+                issuedAt.plusSeconds(900), "token-id");
+    }
+}
@@ -0,0 +1,148 @@
+package com.artztall.user_service.security;
+
+import com.artztall.user_service.config.JwtSigningProperties;
+import com.artztall.user_service.model.Artisan;
+import com.artztall.user_service.model.UserType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtKeyRingTest {
+
+    private static final String SECRET = "test_jwt_secret_key_that_is_long_enough_for_hs384_signing_ok";
+
+    private static KeyPair first;
+    private static KeyPair second;
+    private static KeyPair ed25519;
+
+    private final UserDetailsImpl userDetails = userDetails();
+
+    @BeforeAll
+    static void generateKeys() throws Exception {
+        KeyPairGenerator rsa = KeyPairGenerator.getInstance("RSA");
+        rsa.initialize(2048);
+        first = rsa.generateKeyPair();
+        second = rsa.generateKeyPair();
+        ed25519 = KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+    }
+
+    @Test
+    void testTokensSignedWithRetiredKeyStillVerifyAfterRotation() {
+        JwtTokenProvider before = provider(properties("RS256", "k1", key("k1", first, true), key("k2", second, false)));
+        JwtTokenProvider after = provider(properties("RS256", "k2", key("k1", first, false), key("k2", second, true)));
+
+        String oldToken = before.generateToken(userDetails);
+        String newToken = after.generateToken(userDetails);
+
+        assertTrue(header(oldToken).contains("\"kid\":\"k1\""));
+        assertTrue(header(newToken).contains("\"kid\":\"k2\""));
+        assertTrue(after.parseToken(oldToken).isPresent());
+        assertTrue(after.parseToken(newToken).isPresent());
+    }
+
+    @Test
+    void testRemovedKeyIsRejected() {
+        JwtTokenProvider before = provider(properties("RS256", "k1", key("k1", first, true)));
+        JwtTokenProvider after = provider(properties("RS256", "k2", key("k2", second, true)));
+
+        assertTrue(after.parseToken(before.generateToken(userDetails)).isEmpty());
+    }
+
+    @Test
+    void testLegacyHmacTokensOnlyAcceptedWhenEnabled() {
+        String hmacToken = provider(new JwtSigningProperties()).generateToken(userDetails);
+        JwtSigningProperties properties = properties("RS256", "k1", key("k1", first, true));
+
+        assertTrue(provider(properties).parseToken(hmacToken).isPresent());
+
+        properties.setAcceptLegacyHmac(false);
+        assertTrue(provider(properties).parseToken(hmacToken).isEmpty());
+    }
+
+    @Test
+    void testEdDsaSigning() {
+        JwtTokenProvider provider = provider(properties("EdDSA", "ed", key("ed", ed25519, true)));
+
+        assertEquals("user@example.com",
+                provider.parseToken(provider.generateToken(userDetails)).orElseThrow().subject());
+    }
+
+    @Test
+    void testJwksPublishesPublicKeysOnly() {
+        JwtKeyRing keyRing = new JwtKeyRing(
+                properties("RS256", "k2", key("k1", first, false), key("k2", second, true)), SECRET);
+
+        List<Map<String, Object>> jwks = keyRing.publicJwks();
+
+        assertEquals(List.of("k1", "k2"), jwks.stream().map(jwk -> jwk.get("kid")).toList());
+        assertEquals("RSA", jwks.get(0).get("kty"));
+        assertEquals("sig", jwks.get(0).get("use"));
+        assertFalse(jwks.get(1).containsKey("d"));
+        assertTrue(new JwtKeyRing(new JwtSigningProperties(), SECRET).publicJwks().isEmpty());
+    }
+
+    @Test
+    void testActiveKeyWithoutPrivateKeyFailsFast() {
+        JwtSigningProperties properties = properties("RS256", "k1", key("k1", first, false));
+
+        assertThrows(IllegalStateException.class, () -> new JwtKeyRing(properties, SECRET));
+    }
+
+    private JwtTokenProvider provider(JwtSigningProperties properties) {
+        JwtTokenProvider provider = new JwtTokenProvider(new JwtKeyRing(properties, SECRET),
+                new AuthFailureRecorder(new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(provider, "jwtExpirationInMs", 60_000L);
+        ReflectionTestUtils.setField(provider, "refreshExpirationInMs", 120_000L);
+        provider.init();
+        return provider;
+    }
+
+    private static JwtSigningProperties properties(String algorithm, String activeKeyId, JwtSigningProperties.Key... keys) {
+        JwtSigningProperties properties = new JwtSigningProperties();
+        properties.setAlgorithm(algorithm);
+        properties.setActiveKeyId(activeKeyId);
+        properties.setKeys(List.of(keys));
+        return properties;
+    }
+
+    private static JwtSigningProperties.Key key(String id, KeyPair keyPair, boolean withPrivateKey) {
+        JwtSigningProperties.Key key = new JwtSigningProperties.Key();
+        key.setId(id);
+        key.setPublicKey(pem("PUBLIC KEY", keyPair.getPublic().getEncoded()));
+        if (withPrivateKey) {
+            key.setPrivateKey(pem("PRIVATE KEY", keyPair.getPrivate().getEncoded()));
+        }
+        return key;
+    }
+
+    private static ByteArrayResource pem(String type, byte[] der) {
+        String pem = "-----BEGIN " + type + "-----\n"
+                + Base64.getMimeEncoder(64, "\n".getBytes()).encodeToString(der)
+                + "\n-----END " + type + "-----\n";
+        return new ByteArrayResource(pem.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static String header(String token) {
+        return new String(Base64.getUrlDecoder().decode(token.substring(0, token.indexOf('.'))), StandardCharsets.UTF_8);
+    }
+
+    private static UserDetailsImpl userDetails() {
+        Artisan artisan = new Artisan();
+        artisan.setId("artisan-id");
+        artisan.setEmail("user@example.com");
+        artisan.setUserType(UserType.ARTISAN);
+        artisan.setActive(true);
+        return new UserDetailsImpl(artisan);
+    }
+}
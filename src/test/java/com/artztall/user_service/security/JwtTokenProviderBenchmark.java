@@ -0,0 +1,79 @@
+package com.artztall.user_service.security;
+
+import com.artztall.user_service.config.JwtSigningProperties;
+import com.artztall.user_service.model.Artisan;
+import com.artztall.user_service.model.UserType;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the per-request token handling before and after the verified-claims API.
+ * <p>
+ * {@code legacyValidateThenExtract} reproduces the old filter path: the key and parser are rebuilt
+ * and the signature is checked twice ({@code validateToken} followed by {@code getUsernameFromToken}).
+ * {@code parseOnce} is the current path. Run with {@code main} or through the JMH runner of your IDE.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtTokenProviderBenchmark {
+
+    private static final String SECRET = "benchmark_jwt_secret_key_that_is_long_enough_for_hs384_signing";
+
+    private JwtTokenProvider tokenProvider;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        tokenProvider = new JwtTokenProvider(new JwtKeyRing(new JwtSigningProperties(), SECRET),
+                new AuthFailureRecorder(new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(tokenProvider, "jwtExpirationInMs", 86400000L);
+        tokenProvider.init();
+
+        Artisan artisan = new Artisan();
+        artisan.setId("artisan-id");
+        artisan.setEmail("artisan@example.com");
+        artisan.setUserType(UserType.ARTISAN);
+        artisan.setActive(true);
+        token = tokenProvider.generateToken(new UserDetailsImpl(artisan));
+    }
+
+    @Benchmark
+    public String legacyValidateThenExtract() {
+        Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .build()
+                .parseSignedClaims(token);
+        Claims claims = Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+        return claims.getSubject();
+    }
+
+    @Benchmark
+    public String parseOnce() {
+        return tokenProvider.parseToken(token)
+                .map(JwtPrincipal::subject)
+                .orElseThrow();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtTokenProviderBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,80 @@
+package com.artztall.user_service.security;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures what the login rate limiter adds to an attempt that is allowed through.
+ * <p>
+ * {@code baseline} does the key normalization alone; {@code acquire} runs the full per-address and per-email
+ * check over a rotating set of known clients, with buckets large enough never to run dry. Runs on four threads
+ * so the compare-and-set path sees contention. Run with {@code main} or through the JMH runner of your IDE.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class LoginRateLimiterBenchmark {
+
+    private static final int CLIENTS = 1024;
+
+    private LoginRateLimiter limiter;
+    private String[] emails;
+    private String[] addresses;
+
+    @Setup
+    public void setUp() {
+        limiter = new LoginRateLimiter();
+        ReflectionTestUtils.setField(limiter, "enabled", true);
+        ReflectionTestUtils.setField(limiter, "emailCapacity", 1_000_000);
+        ReflectionTestUtils.setField(limiter, "emailRefillPeriodMs", 1000L);
+        ReflectionTestUtils.setField(limiter, "ipCapacity", 1_000_000);
+        ReflectionTestUtils.setField(limiter, "ipRefillPeriodMs", 1000L);
+        ReflectionTestUtils.setField(limiter, "maxKeys", 100_000);
+        limiter.init();
+
+        emails = new String[CLIENTS];
+        addresses = new String[CLIENTS];
+        for (int i = 0; i < CLIENTS; i++) {
+            emails[i] = "user" + i + "@example.com";
+            addresses[i] = "10.0." + (i / 256) + "." + (i % 256);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+
+        int advance() {
+            next = (next + 1) & (CLIENTS - 1);
+            return next;
+        }
+    }
+
+    @Benchmark
+    public String baseline(Cursor cursor) {
+        int i = cursor.advance();
+        return emails[i].toLowerCase(Locale.ROOT) + addresses[i];
+    }
+
+    @Benchmark
+    public void acquire(Cursor cursor) {
+        int i = cursor.advance();
+        limiter.acquire(emails[i], addresses[i]);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(LoginRateLimiterBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
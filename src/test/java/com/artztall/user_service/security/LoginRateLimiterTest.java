@@ -0,0 +1,91 @@
+package com.artztall.user_service.security;
+
+import com.artztall.user_service.exception.TooManyRequestsException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginRateLimiterTest {
+
+    private static final long MINUTE = TimeUnit.MINUTES.toNanos(1);
+
+    private final AtomicLong time = new AtomicLong();
+    private LoginRateLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        limiter = new LoginRateLimiter();
+        limiter.ticker = time::get;
+        ReflectionTestUtils.setField(limiter, "enabled", true);
+        ReflectionTestUtils.setField(limiter, "emailCapacity", 3);
+        ReflectionTestUtils.setField(limiter, "emailRefillPeriodMs", 60_000L);
+        ReflectionTestUtils.setField(limiter, "ipCapacity", 5);
+        ReflectionTestUtils.setField(limiter, "ipRefillPeriodMs", 60_000L);
+        ReflectionTestUtils.setField(limiter, "maxKeys", 2);
+        limiter.init();
+    }
+
+    @Test
+    void testEmailBucketEmptiesAndRefills() {
+        for (int i = 0; i < 3; i++) {
+            limiter.acquire("user@example.com", "10.0.0.1", 0);
+        }
+
+        TooManyRequestsException ex = assertThrows(TooManyRequestsException.class,
+                () -> limiter.acquire("USER@example.com", "10.0.0.2", 0));
+        assertEquals(20, ex.getRetryAfterSeconds());
+
+        // One token comes back every 20 seconds
+        limiter.acquire("user@example.com", "10.0.0.2", MINUTE / 3);
+    }
+
+    @Test
+    void testAddressBucketSpansEmails() {
+        for (int i = 0; i < 5; i++) {
+            limiter.acquire("user" + i + "@example.com", "10.0.0.1", 0);
+        }
+
+        assertThrows(TooManyRequestsException.class, () -> limiter.acquire("other@example.com", "10.0.0.1", 0));
+    }
+
+    @Test
+    void testNewKeysGetTheirOwnBucketsWhenFull() {
+        limiter.acquire("a@example.com", "10.0.0.1", 0);
+        limiter.acquire("b@example.com", "10.0.0.2", 0);
+        assertEquals(4, limiter.trackedKeys());
+
+        // More distinct users than max-keys: none of them is throttled by the others
+        for (int i = 0; i < 10; i++) {
+            for (int attempt = 0; attempt < 3; attempt++) {
+                limiter.acquire("new" + i + "@example.com", "10.0.1." + i, 0);
+            }
+        }
+
+        assertTrue(limiter.trackedKeys() <= 4);
+    }
+
+    @Test
+    void testIdleBucketsExpireOnceRefilled() {
+        limiter.acquire("a@example.com", "10.0.0.1", 0);
+
+        time.set(1);
+        assertEquals(2, limiter.trackedKeys());
+
+        time.set(MINUTE);
+        assertEquals(0, limiter.trackedKeys());
+    }
+
+    @Test
+    void testDisabledLimiterNeverThrows() {
+        ReflectionTestUtils.setField(limiter, "enabled", false);
+
+        for (int i = 0; i < 10; i++) {
+            limiter.acquire("user@example.com", "10.0.0.1");
+        }
+    }
+}
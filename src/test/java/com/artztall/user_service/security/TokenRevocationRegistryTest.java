@@ -0,0 +1,176 @@
+package com.artztall.user_service.security;
+
+import com.artztall.user_service.model.TokenRevocation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class TokenRevocationRegistryTest {
+
+    private static final long REFRESH_EXPIRATION_MS = 3_600_000L;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private TokenRevocationRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        registry = new TokenRevocationRegistry(mongoTemplate);
+        ReflectionTestUtils.setField(registry, "refreshExpirationInMs", REFRESH_EXPIRATION_MS);
+        ReflectionTestUtils.setField(registry, "pollOverlapMs", 30_000L);
+    }
+
+    @Test
+    void testRevokedTokenIsRejectedByJti() {
+        Instant issuedAt = Instant.now().minusSeconds(60);
+        registry.revokeToken("token-id", issuedAt.plusSeconds(900));
+
+        assertTrue(registry.isRevoked(principal("token-id", issuedAt)));
+        assertFalse(registry.isRevoked(principal("other-token-id", issuedAt)));
+    }
+
+    @Test
+    void testExpiredTokenIsNotTracked() {
+        registry.revokeToken("token-id", Instant.now().minusSeconds(1));
+
+        assertFalse(registry.isRevoked(principal("token-id", Instant.now().minusSeconds(900))));
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void testUserRevocationRejectsTokensIssuedInEarlierSeconds() {
+        registry.revokeUser("user-id");
+        Instant revokedAt = revokedAt("user-id");
+
+        assertEquals(0, revokedAt.getNano());
+        assertTrue(registry.isRevoked(principal("token-id", revokedAt.minusMillis(1))));
+        assertTrue(registry.isRevoked(principal("token-id", null)));
+        assertFalse(registry.isRevoked(principal("token-id", revokedAt.plusSeconds(1))));
+    }
+
+    // iat has second precision, so a token issued right after the revocation carries the same second
+    @Test
+    void testTokenIssuedInTheSameSecondAsTheRevocationIsAccepted() {
+        registry.revokeUser("user-id");
+        Instant revokedAt = revokedAt("user-id");
+
+        assertFalse(registry.isRevoked(principal("token-id", revokedAt)));
+        assertFalse(registry.isRevoked(principal("token-id", revokedAt.plusMillis(999))));
+    }
+
+    @Test
+    void testSweepDropsEntriesThatNoLongerRevokeAnything() {
+        Instant now = Instant.now();
+        revokedUsers().put("old-user", now.minusMillis(REFRESH_EXPIRATION_MS + 1_000));
+        revokedUsers().put("recent-user", now.minusSeconds(60));
+        revokedTokens().put("expired-token", now.minusSeconds(1));
+        revokedTokens().put("live-token", now.plusSeconds(60));
+
+        registry.sweepExpired();
+
+        assertEquals(List.of("recent-user"), List.copyOf(revokedUsers().keySet()));
+        assertEquals(List.of("live-token"), List.copyOf(revokedTokens().keySet()));
+    }
+
+    @Test
+    void testRevocationsAreShared() {
+        registry.revokeUser("user-id");
+        Instant expiresAt = Instant.now().plusSeconds(900);
+        registry.revokeToken("token-id", expiresAt);
+
+        ArgumentCaptor<TokenRevocation> saved = ArgumentCaptor.forClass(TokenRevocation.class);
+        verify(mongoTemplate, times(2)).save(saved.capture());
+        TokenRevocation user = saved.getAllValues().get(0);
+        assertEquals("user-id", user.getUserId());
+        assertEquals(revokedAt("user-id"), user.getRevokedAt());
+        assertEquals(user.getRevokedAt().plusMillis(REFRESH_EXPIRATION_MS), user.getExpiresAt());
+        TokenRevocation token = saved.getAllValues().get(1);
+        assertEquals("token-id", token.getTokenId());
+        assertEquals(expiresAt, token.getExpiresAt());
+    }
+
+    @Test
+    void testPollAppliesRevocationsFromOtherNodes() {
+        Instant revokedAt = Instant.now().minusSeconds(5).truncatedTo(ChronoUnit.SECONDS);
+        when(mongoTemplate.find(any(Query.class), eq(TokenRevocation.class))).thenReturn(List.of(
+                TokenRevocation.forUser("user-id", revokedAt, revokedAt.plusMillis(REFRESH_EXPIRATION_MS)),
+                TokenRevocation.forToken("token-id", revokedAt, revokedAt.plusSeconds(900))));
+
+        registry.pollShared();
+
+        assertTrue(registry.isRevoked(principal("other-token-id", revokedAt.minusSeconds(1))));
+        assertFalse(registry.isRevoked(principal("other-token-id", revokedAt.plusSeconds(1))));
+        assertTrue(registry.isRevoked(new JwtPrincipal("other@example.com", "other-id", "ROLE_BUYER",
+                revokedAt, revokedAt.plusSeconds(900), "token-id")));
+    }
+
+    @Test
+    void testPollKeepsTheLatestUserRevocation() {
+        registry.revokeUser("user-id");
+        Instant latest = revokedAt("user-id");
+        Instant earlier = latest.minusSeconds(30);
+        when(mongoTemplate.find(any(Query.class), eq(TokenRevocation.class))).thenReturn(List.of(
+                TokenRevocation.forUser("user-id", earlier, earlier.plusMillis(REFRESH_EXPIRATION_MS))));
+
+        registry.pollShared();
+
+        assertEquals(latest, revokedAt("user-id"));
+    }
+
+    @Test
+    void testPollFailureKeepsLocalRevocations() {
+        registry.revokeUser("user-id");
+        when(mongoTemplate.find(any(Query.class), eq(TokenRevocation.class)))
+                .thenThrow(new DataAccessResourceFailureException("down"));
+
+        registry.pollShared();
+
+        assertTrue(registry.isRevoked(principal("token-id", Instant.now().minusSeconds(60))));
+    }
+
+    @Test
+    void testLocalOnlyRegistryDoesNotPoll() {
+        TokenRevocationRegistry localOnly = new TokenRevocationRegistry();
+        localOnly.revokeUser("user-id");
+        localOnly.pollShared();
+
+        assertTrue(localOnly.isRevoked(principal("token-id", Instant.now().minusSeconds(60))));
+    }
+
+    private Instant revokedAt(String userId) {
+        return revokedUsers().get(userId);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Instant> revokedUsers() {
+        return (Map<String, Instant>) ReflectionTestUtils.getField(registry, "revokedUsers");
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Instant> revokedTokens() {
+        return (Map<String, Instant>) ReflectionTestUtils.getField(registry, "revokedTokens");
+    }
+
+    private static JwtPrincipal principal(String tokenId, Instant issuedAt) {
+        Instant base = issuedAt != null ? issuedAt : Instant.now();
+        return new JwtPrincipal("user@example.com", "user-id", "ROLE_BUYER", issuedAt, base.plusSeconds(900), tokenId);
+    }
+}
@@ -0,0 +1,97 @@
+package com.artztall.user_service.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class VerifiedTokenCacheTest {
+
+    @Mock
+    private JwtTokenProvider tokenProvider;
+
+    private SimpleMeterRegistry meterRegistry;
+    private VerifiedTokenCache cache;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new VerifiedTokenCache(tokenProvider, meterRegistry);
+        ReflectionTestUtils.setField(cache, "enabled", true);
+        ReflectionTestUtils.setField(cache, "maxSize", 100L);
+        cache.init();
+    }
+
+    @Test
+    void testRepeatedTokenIsVerifiedOnce() {
+        JwtPrincipal principal = principal(Instant.now().plusSeconds(60));
+        when(tokenProvider.parseToken("token")).thenReturn(Optional.of(principal));
+
+        assertEquals(Optional.of(principal), cache.parseToken("token"));
+        assertEquals(Optional.of(principal), cache.parseToken("token"));
+
+        verify(tokenProvider, times(1)).parseToken("token");
+        assertEquals(0.5, meterRegistry.get("jwt.verified.cache.hit.ratio").gauge().value());
+        assertEquals(1, meterRegistry.get("jwt.verify").tag("result", "valid").timer().count());
+    }
+
+    // Non-ASCII characters would all encode to '?' and share one cache entry
+    @Test
+    void testTokensDifferingOnlyInNonAsciiCharactersAreVerifiedSeparately() {
+        JwtPrincipal principal = principal(Instant.now().plusSeconds(60));
+        when(tokenProvider.parseToken("tokené")).thenReturn(Optional.of(principal));
+        when(tokenProvider.parseToken("tokenè")).thenReturn(Optional.empty());
+
+        assertEquals(Optional.of(principal), cache.parseToken("tokené"));
+        assertTrue(cache.parseToken("tokenè").isEmpty());
+
+        verify(tokenProvider, times(1)).parseToken("tokenè");
+    }
+
+    @Test
+    void testInvalidTokensAreNotCached() {
+        when(tokenProvider.parseToken("bad")).thenReturn(Optional.empty());
+
+        assertTrue(cache.parseToken("bad").isEmpty());
+        assertTrue(cache.parseToken("bad").isEmpty());
+
+        verify(tokenProvider, times(2)).parseToken("bad");
+        assertEquals(2, meterRegistry.get("jwt.verify").tag("result", "invalid").timer().count());
+    }
+
+    @Test
+    void testExpiredEntryIsVerifiedAgain() {
+        when(tokenProvider.parseToken("token"))
+                .thenReturn(Optional.of(principal(Instant.now().minusSeconds(1))))
+                .thenReturn(Optional.empty());
+
+        cache.parseToken("token");
+
+        assertTrue(cache.parseToken("token").isEmpty());
+        verify(tokenProvider, times(2)).parseToken("token");
+    }
+
+    @Test
+    void testDisabledCacheAlwaysVerifies() {
+        ReflectionTestUtils.setField(cache, "enabled", false);
+        when(tokenProvider.parseToken("token")).thenReturn(Optional.of(principal(Instant.now().plusSeconds(60))));
+
+        cache.parseToken("token");
+        cache.parseToken("token");
+
+        verify(tokenProvider, times(2)).parseToken("token");
+    }
+
+    private static JwtPrincipal principal(Instant expiresAt) {
+        return new JwtPrincipal("user@example.com", "user-id", "ROLE_BUYER", Instant.now(), expiresAt, "token-id");
+    }
+}
@@ -0,0 +1,139 @@
+package com.artztall.user_service.service;
+
+import com.artztall.user_service.config.MongoConfig;
+import com.artztall.user_service.dto.ArtisanDTO;
+import com.artztall.user_service.dto.BuyerDTO;
+import com.artztall.user_service.model.Artisan;
+import com.artztall.user_service.model.Buyer;
+import com.artztall.user_service.model.WishListItem;
+import com.artztall.user_service.model.WishlistEntry;
+import com.artztall.user_service.security.CustomUserDetailsService;
+import com.artztall.user_service.security.TokenRevocationRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Read behavior both the blocking and the reactive paths must share, run against an embedded Mongo.
+ * Subclasses only say how a read is performed.
+ */
+@DataMongoTest(properties = "de.flapdoodle.mongodb.embedded.version=7.0.12")
+@Import({MongoConfig.class, UserService.class, WishlistService.class, ReactiveUserReadService.class})
+abstract class AbstractUserReadContractTest {
+
+    @Autowired
+    protected MongoTemplate mongoTemplate;
+
+    @MockBean
+    private CustomUserDetailsService userDetailsService;
+
+    @MockBean
+    private TokenRevocationRegistry revocationRegistry;
+
+    @MockBean
+    private UserDirectoryService userDirectoryService;
+
+    @MockBean
+    private ArtisanSearchService artisanSearchService;
+
+    @MockBean
+    private CategoryFacetIndex categoryFacetIndex;
+
+    protected abstract ArtisanDTO getArtisanById(String id);
+
+    protected abstract BuyerDTO getBuyerById(String id);
+
+    protected abstract List<WishListItem> getWishlist(String buyerId);
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate.remove(new Query(), Artisan.class);
+        mongoTemplate.remove(new Query(), Buyer.class);
+        mongoTemplate.remove(new Query(), WishlistEntry.class);
+
+        Artisan artisan = new Artisan();
+        artisan.setId("artisan-id");
+        artisan.setEmail("anna@example.com");
+        artisan.setName("Anna Clay");
+        artisan.setPassword("secret");
+        artisan.setBio("Wheel-thrown stoneware");
+        artisan.setArtworkCategories(List.of("Pottery"));
+        artisan.setAverageRating(4.8);
+        artisan.setTotalSales(12);
+        artisan.setVerified(true);
+        mongoTemplate.insert(artisan);
+
+        Buyer buyer = new Buyer();
+        buyer.setId("buyer-id");
+        buyer.setEmail("bob@example.com");
+        buyer.setName("Bob");
+        buyer.setFavoriteArtisans(List.of("artisan-id"));
+        mongoTemplate.insert(buyer);
+
+        mongoTemplate.insertAll(List.of(
+                new WishlistEntry("entry-2", "buyer-id", "product-2", LocalDateTime.of(2024, 1, 2, 10, 0), null),
+                new WishlistEntry("entry-1", "buyer-id", "product-1", LocalDateTime.of(2024, 1, 1, 10, 0), "gift")
+        ));
+    }
+
+    @Test
+    void testGetArtisanById() {
+        ArtisanDTO expected = new ArtisanDTO();
+        expected.setId("artisan-id");
+        expected.setEmail("anna@example.com");
+        expected.setName("Anna Clay");
+        expected.setBio("Wheel-thrown stoneware");
+        expected.setArtworkCategories(List.of("Pottery"));
+        expected.setAverageRating(4.8);
+        expected.setTotalSales(12);
+        expected.setVerified(true);
+
+        assertEquals(expected, getArtisanById("artisan-id"));
+    }
+
+    @Test
+    void testGetArtisanById_NotFound() {
+        RuntimeException ex = assertThrows(RuntimeException.class, () -> getArtisanById("missing"));
+        assertEquals("Artisan not found", ex.getMessage());
+    }
+
+    @Test
+    void testGetBuyerById_IncludesWishlistInAddedOrder() {
+        BuyerDTO buyer = getBuyerById("buyer-id");
+
+        assertEquals("bob@example.com", buyer.getEmail());
+        assertEquals(List.of("artisan-id"), buyer.getFavoriteArtisans());
+        assertEquals(List.of("product-1", "product-2"),
+                buyer.getWishlist().stream().map(WishListItem::getProductId).toList());
+    }
+
+    @Test
+    void testGetBuyerById_NotFound() {
+        RuntimeException ex = assertThrows(RuntimeException.class, () -> getBuyerById("missing"));
+        assertEquals("Buyer not found", ex.getMessage());
+    }
+
+    @Test
+    void testGetWishlist() {
+        List<WishListItem> items = getWishlist("buyer-id");
+
+        assertEquals(2, items.size());
+        assertEquals(new WishListItem("product-1", LocalDateTime.of(2024, 1, 1, 10, 0), "gift"), items.get(0));
+    }
+
+    @Test
+    void testGetWishlist_UnknownBuyer() {
+        RuntimeException ex = assertThrows(RuntimeException.class, () -> getWishlist("unknown"));
+        assertEquals("Buyer not found", ex.getMessage());
+    }
+}
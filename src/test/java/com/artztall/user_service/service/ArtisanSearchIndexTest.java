@@ -0,0 +1,116 @@
+package com.artztall.user_service.service;
+
+import com.artztall.user_service.config.MongoConfig;
+import com.artztall.user_service.dto.ArtisanSearchCriteria;
+import com.artztall.user_service.exception.SearchWindowExceededException;
+import com.artztall.user_service.model.Artisan;
+import com.artztall.user_service.repository.ArtisanView;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs every artisan search filter combination against an embedded Mongo, with the indexes created
+ * by {@link MongoConfig}, and checks the winning plan never scans the collection.
+ */
+@DataMongoTest(properties = "de.flapdoodle.mongodb.embedded.version=7.0.12")
+@Import(MongoConfig.class)
+class ArtisanSearchIndexTest {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate.remove(new Query(), Artisan.class);
+        mongoTemplate.insertAll(List.of(
+                artisan("Anna Clay", List.of("Pottery"), 4.8, true),
+                artisan("andre Kiln", List.of("Pottery", "Sculpture"), 3.9, false),
+                artisan("Bea Loom", List.of("Textiles"), 4.2, true),
+                inactive(artisan("Ann Retired", List.of("Pottery"), 5.0, true))
+        ));
+    }
+
+    static Stream<ArtisanSearchCriteria> allFilterCombinations() {
+        return IntStream.range(0, 32).mapToObj(mask -> new ArtisanSearchCriteria(
+                (mask & 1) != 0 ? "Pottery" : null,
+                (mask & 2) != 0 ? 3.0 : null,
+                (mask & 4) != 0 ? 4.5 : null,
+                (mask & 8) != 0 ? Boolean.TRUE : null,
+                (mask & 16) != 0 ? "An" : null
+        ));
+    }
+
+    @ParameterizedTest
+    @MethodSource("allFilterCombinations")
+    void testSearchNeverScansCollection(ArtisanSearchCriteria criteria) {
+        Query query = ArtisanSearchService.buildQuery(criteria);
+
+        Document explain = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Artisan.class))
+                .find(query.getQueryObject())
+                .sort(query.getSortObject())
+                .hintString(query.getHint())
+                .explain();
+        String winningPlan = explain.get("queryPlanner", Document.class).get("winningPlan", Document.class).toJson();
+
+        assertFalse(winningPlan.contains("COLLSCAN"), winningPlan);
+        assertTrue(winningPlan.contains("IXSCAN"), winningPlan);
+    }
+
+    @Test
+    void testSearchMatchesNamePrefixIgnoringCase() {
+        ArtisanSearchService searchService = new ArtisanSearchService(mongoTemplate);
+
+        Page<ArtisanView> result = searchService.search(
+                new ArtisanSearchCriteria("Pottery", null, null, null, "AN"), PageRequest.of(0, 10));
+
+        assertEquals(List.of("Anna Clay", "andre Kiln"), result.map(ArtisanView::getName).getContent());
+        assertEquals(2, result.getTotalElements());
+    }
+
+    @Test
+    void testNamePrefixSearchIsCappedInDepth() {
+        ArtisanSearchService searchService = new ArtisanSearchService(mongoTemplate);
+        ArtisanSearchCriteria byName = new ArtisanSearchCriteria(null, null, null, null, "an");
+        int size = 50;
+        int lastPage = ArtisanSearchService.MAX_NAME_PREFIX_WINDOW / size - 1;
+
+        assertTrue(searchService.search(byName, PageRequest.of(lastPage, size)).getContent().isEmpty());
+        assertThrows(SearchWindowExceededException.class,
+                () -> searchService.search(byName, PageRequest.of(lastPage + 1, size)));
+        assertDoesNotThrow(() -> searchService.search(
+                new ArtisanSearchCriteria("Pottery", null, null, null, null), PageRequest.of(lastPage + 1, size)));
+    }
+
+    private Artisan artisan(String name, List<String> categories, double rating, boolean verified) {
+        Artisan artisan = new Artisan();
+        artisan.setName(name);
+        artisan.setNameLower(ArtisanSearchService.normalizeName(name));
+        artisan.setEmail(name.replace(' ', '.').toLowerCase() + "@example.com");
+        artisan.setArtworkCategories(categories);
+        artisan.setAverageRating(rating);
+        artisan.setVerified(verified);
+        artisan.setActive(true);
+        return artisan;
+    }
+
+    private static Artisan inactive(Artisan artisan) {
+        artisan.setActive(false);
+        return artisan;
+    }
+}
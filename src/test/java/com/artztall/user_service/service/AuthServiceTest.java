@@ -4,6 +4,7 @@
     import com.artztall.user_service.dto.AuthResponse;
     import com.artztall.user_service.dto.LoginRequest;
     import com.artztall.user_service.dto.SignupRequest;
+    import com.artztall.user_service.exception.InvalidTokenException;
     import com.artztall.user_service.exception.UserAlreadyExistsException;
     import com.artztall.user_service.exception.UserNotFoundException;
     import com.artztall.user_service.model.Artisan;
@@ -12,19 +13,23 @@
     import com.artztall.user_service.repository.ArtisanRepository;
     import com.artztall.user_service.repository.BuyerRepository;
     import com.artztall.user_service.repository.UserRepository;
+    import com.artztall.user_service.security.JwtPrincipal;
     import com.artztall.user_service.security.JwtTokenProvider;
+    import com.artztall.user_service.security.TokenRevocationRegistry;
     import com.artztall.user_service.security.UserDetailsImpl;
     import org.junit.jupiter.api.BeforeEach;
     import org.junit.jupiter.api.Test;
     import org.mockito.InjectMocks;
     import org.mockito.Mock;
     import org.mockito.MockitoAnnotations;
+    import org.springframework.dao.DuplicateKeyException;
     import org.springframework.security.authentication.AuthenticationManager;
     import org.springframework.security.authentication.BadCredentialsException;
     import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
     import org.springframework.security.core.Authentication;
     import org.springframework.security.crypto.password.PasswordEncoder;
 
+    import java.time.Instant;
     import java.util.Optional;
 
     import static org.junit.jupiter.api.Assertions.*;
@@ -55,6 +60,21 @@
         @Mock
         private JwtTokenProvider tokenProvider;
 
+        @Mock
+        private UserDirectoryService userDirectoryService;
+
+        @Mock
+        private CategoryFacetIndex categoryFacetIndex;
+
+        @Mock
+        private LastLoginRecorder lastLoginRecorder;
+
+        @Mock
+        private RefreshTokenService refreshTokenService;
+
+        @Mock
+        private TokenRevocationRegistry revocationRegistry;
+
         @BeforeEach
         void setUp() {
             MockitoAnnotations.openMocks(this);
@@ -68,8 +88,7 @@
             request.setUserType("ARTISAN");
             request.setName("Test User");
 
-            when(artisanRepository.existsByEmail(eq("test@example.com"))).thenReturn(false);
-            when(userRepository.existsByEmail(eq("test@example.com"))).thenReturn(false);
+            when(userDirectoryService.isEmailTaken(eq("test@example.com"))).thenReturn(false);
             when(passwordEncoder.encode(eq("password"))).thenReturn("encoded_password");
             when(artisanRepository.save(any(Artisan.class))).thenAnswer(invocation -> invocation.getArgument(0));
             when(tokenProvider.generateToken(any(UserDetailsImpl.class))).thenReturn("test_token");
@@ -82,6 +101,7 @@
             assertEquals("test_token", response.getToken());
 
             verify(artisanRepository, times(1)).save(any(Artisan.class));
+            verify(userDirectoryService, times(1)).register(any(Artisan.class));
         }
 
         @Test
@@ -91,11 +111,11 @@
             request.setPassword("password");
             request.setUserType("ARTISAN");
 
-            when(userRepository.existsByEmail(eq("test@example.com"))).thenReturn(true);
+            when(userDirectoryService.isEmailTaken(eq("test@example.com"))).thenReturn(true);
 
             assertThrows(UserAlreadyExistsException.class, () -> authService.signup(request));
 
-            verify(userRepository, times(1)).existsByEmail(eq("test@example.com"));
+            verify(userDirectoryService, times(1)).isEmailTaken(eq("test@example.com"));
             verifyNoInteractions(passwordEncoder, tokenProvider);
         }
 
@@ -119,11 +139,9 @@
             when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
                     .thenReturn(mockAuthentication);
 
-            // Mock repositories
-            when(artisanRepository.findByEmail(eq("test@example.com"))).thenReturn(Optional.of((Artisan) user));
-
             // Mock token generation
             when(tokenProvider.generateToken(eq(userDetails))).thenReturn("test_token");
+            when(refreshTokenService.issue(eq(userDetails))).thenReturn("refresh_token");
 
             // Perform login
             AuthResponse response = authService.login(request);
@@ -132,39 +150,78 @@
             assertNotNull(response);
             assertEquals("test@example.com", response.getEmail());
             assertEquals("test_token", response.getToken());
+            assertEquals("refresh_token", response.getRefreshToken());
 
             // Verify interactions
             verify(authenticationManager, times(1)).authenticate(any(UsernamePasswordAuthenticationToken.class));
             verify(tokenProvider, times(1)).generateToken(eq(userDetails));
+            verify(lastLoginRecorder, times(1)).record(user);
+            verify(artisanRepository, never()).save(any(Artisan.class));
+            verifyNoInteractions(userDirectoryService);
         }
 
 
         @Test
-        void testLogin_UserNotFound() {
+        void testLogin_BadCredentials() {
             LoginRequest request = new LoginRequest();
             request.setEmail("nonexistent@example.com");
             request.setPassword("password");
 
-            // Mock repositories to simulate user not found
-            when(artisanRepository.findByEmail(eq("nonexistent@example.com"))).thenReturn(Optional.empty());
-            when(buyerRepository.findByEmail(eq("nonexistent@example.com"))).thenReturn(Optional.empty());
-
-            // Mock successful authentication (you can mock this as you did for the user)
-            Authentication mockAuthentication = mock(Authentication.class);
-            when(mockAuthentication.getPrincipal()).thenReturn(mock(UserDetailsImpl.class));
             when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
-                    .thenReturn(mockAuthentication);
+                    .thenThrow(new BadCredentialsException("Bad credentials"));
 
-            // Assert that the UserNotFoundException is thrown
             assertThrows(UserNotFoundException.class, () -> authService.login(request));
 
-            // Verify repository interactions
-            verify(artisanRepository, times(1)).findByEmail(eq("nonexistent@example.com"));
-            verify(buyerRepository, times(1)).findByEmail(eq("nonexistent@example.com"));
+            // The user is resolved once, by the authentication manager
+            verifyNoInteractions(userDirectoryService, tokenProvider, refreshTokenService);
+        }
 
-            // Verify authentication manager interaction
-            verify(authenticationManager, times(1)).authenticate(any(UsernamePasswordAuthenticationToken.class));
+        @Test
+        void testSignup_ConcurrentDuplicateRejected() {
+            SignupRequest request = new SignupRequest();
+            request.setEmail("test@example.com");
+            request.setPassword("password");
+            request.setName("Test User");
+            request.setUserType("ARTISAN");
+
+            when(userDirectoryService.isEmailTaken(eq("test@example.com"))).thenReturn(false);
+            when(artisanRepository.save(any(Artisan.class))).thenAnswer(invocation -> invocation.getArgument(0));
+            doThrow(new DuplicateKeyException("E11000")).when(userDirectoryService).register(any(Artisan.class));
+
+            assertThrows(UserAlreadyExistsException.class, () -> authService.signup(request));
+            verifyNoInteractions(tokenProvider, refreshTokenService);
+        }
+
+        @Test
+        void testRefresh_IssuesNewTokenPair() {
+            BaseUser user = new Artisan();
+            user.setEmail("test@example.com");
+            user.setUserType(UserType.ARTISAN);
+            user.setActive(true);
+
+            when(refreshTokenService.consume("old_refresh")).thenReturn(new JwtPrincipal(
+                    "test@example.com", "user-id", "ROLE_ARTISAN", Instant.now(), Instant.now().plusSeconds(60), "jti"));
+            when(userDirectoryService.findUserByEmail(eq("test@example.com"))).thenReturn(Optional.of(user));
+            when(tokenProvider.generateToken(any(UserDetailsImpl.class))).thenReturn("new_token");
+            when(refreshTokenService.issue(any(UserDetailsImpl.class))).thenReturn("new_refresh");
+
+            AuthResponse response = authService.refresh("old_refresh");
+
+            assertEquals("new_token", response.getToken());
+            assertEquals("new_refresh", response.getRefreshToken());
         }
 
+        @Test
+        void testRefresh_InactiveUserRejected() {
+            BaseUser user = new Artisan();
+            user.setEmail("test@example.com");
+            user.setActive(false);
 
+            when(refreshTokenService.consume("old_refresh")).thenReturn(new JwtPrincipal(
+                    "test@example.com", "user-id", "ROLE_ARTISAN", Instant.now(), Instant.now().plusSeconds(60), "jti"));
+            when(userDirectoryService.findUserByEmail(eq("test@example.com"))).thenReturn(Optional.of(user));
+
+            assertThrows(InvalidTokenException.class, () -> authService.refresh("old_refresh"));
+            verify(refreshTokenService, never()).issue(any(UserDetailsImpl.class));
+        }
     }
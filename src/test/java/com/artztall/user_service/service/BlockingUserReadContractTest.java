@@ -0,0 +1,32 @@
+package com.artztall.user_service.service;
+
+import com.artztall.user_service.dto.ArtisanDTO;
+import com.artztall.user_service.dto.BuyerDTO;
+import com.artztall.user_service.model.WishListItem;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+
+class BlockingUserReadContractTest extends AbstractUserReadContractTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private WishlistService wishlistService;
+
+    @Override
+    protected ArtisanDTO getArtisanById(String id) {
+        return userService.getArtisanById(id);
+    }
+
+    @Override
+    protected BuyerDTO getBuyerById(String id) {
+        return userService.getBuyerById(id);
+    }
+
+    @Override
+    protected List<WishListItem> getWishlist(String buyerId) {
+        return wishlistService.getWishlist(buyerId);
+    }
+}
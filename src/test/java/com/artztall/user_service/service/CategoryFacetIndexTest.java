@@ -0,0 +1,101 @@
+package com.artztall.user_service.service;
+
+import com.artztall.user_service.dto.ArtisanRankDTO;
+import com.artztall.user_service.dto.CategoryCountDTO;
+import com.artztall.user_service.model.Artisan;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+class CategoryFacetIndexTest {
+
+    @InjectMocks
+    private CategoryFacetIndex categoryFacetIndex;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        categoryFacetIndex.upsert(artisan("a1", List.of("Pottery", "Sculpture"), 4.5, 10));
+        categoryFacetIndex.upsert(artisan("a2", List.of("Pottery"), 4.9, 3));
+        categoryFacetIndex.upsert(artisan("a3", List.of("Pottery", "Pottery"), 3.2, 40));
+    }
+
+    @Test
+    void testCategoryCounts() {
+        assertEquals(List.of(new CategoryCountDTO("Pottery", 3), new CategoryCountDTO("Sculpture", 1)),
+                categoryFacetIndex.getCategoryCounts());
+    }
+
+    @Test
+    void testTopArtisansByRatingAndSales() {
+        assertEquals(List.of("a2", "a1"), ids(categoryFacetIndex.getTopArtisans("Pottery", CategoryFacetIndex.Ranking.RATING, 2)));
+        assertEquals(List.of("a3", "a1", "a2"), ids(categoryFacetIndex.getTopArtisans("Pottery", CategoryFacetIndex.Ranking.SALES, 10)));
+        assertTrue(categoryFacetIndex.getTopArtisans("Textiles", CategoryFacetIndex.Ranking.RATING, 10).isEmpty());
+    }
+
+    @Test
+    void testUpsertMovesArtisanBetweenCategories() {
+        categoryFacetIndex.upsert(artisan("a1", List.of("Textiles"), 4.5, 10));
+
+        assertEquals(2, categoryFacetIndex.getCategoryCount("Pottery"));
+        assertEquals(0, categoryFacetIndex.getCategoryCount("Sculpture"));
+        assertEquals(1, categoryFacetIndex.getCategoryCount("Textiles"));
+    }
+
+    @Test
+    void testInactiveAndRemovedArtisansAreDropped() {
+        Artisan inactive = artisan("a2", List.of("Pottery"), 4.9, 3);
+        inactive.setActive(false);
+        categoryFacetIndex.upsert(inactive);
+        categoryFacetIndex.remove("a3");
+
+        assertEquals(1, categoryFacetIndex.getCategoryCount("Pottery"));
+        assertEquals(List.of("a1"), ids(categoryFacetIndex.getTopArtisans("Pottery", CategoryFacetIndex.Ranking.RATING, 10)));
+    }
+
+    @Test
+    void testRebuildServesOldFacetsWhileScanningAndKeepsConcurrentChanges() {
+        Artisan stored = artisan("a4", List.of("Textiles"), 4.0, 1);
+        when(mongoTemplate.stream(any(Query.class), eq(Artisan.class))).thenReturn(Stream.of(stored).peek(scanned -> {
+            // Reads are answered from the previous facets and writes are not blocked during the scan
+            assertEquals(3, categoryFacetIndex.getCategoryCount("Pottery"));
+            categoryFacetIndex.upsert(artisan("a5", List.of("Textiles"), 4.8, 2));
+        }));
+
+        categoryFacetIndex.rebuild();
+
+        assertEquals(0, categoryFacetIndex.getCategoryCount("Pottery"));
+        assertEquals(List.of("a5", "a4"), ids(categoryFacetIndex.getTopArtisans("Textiles", CategoryFacetIndex.Ranking.RATING, 10)));
+    }
+
+    private List<String> ids(List<ArtisanRankDTO> ranked) {
+        return ranked.stream().map(ArtisanRankDTO::getId).toList();
+    }
+
+    private Artisan artisan(String id, List<String> categories, double rating, int sales) {
+        Artisan artisan = new Artisan();
+        artisan.setId(id);
+        artisan.setName("Artisan " + id);
+        artisan.setActive(true);
+        artisan.setArtworkCategories(categories);
+        artisan.setAverageRating(rating);
+        artisan.setTotalSales(sales);
+        return artisan;
+    }
+}
@@ -0,0 +1,116 @@
+package com.artztall.user_service.service;
+
+import com.artztall.user_service.model.Artisan;
+import com.artztall.user_service.model.Buyer;
+import com.artztall.user_service.model.UserType;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class LastLoginRecorderTest {
+
+    @InjectMocks
+    private LastLoginRecorder lastLoginRecorder;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Mock
+    private BulkOperations artisanWrites;
+
+    @Mock
+    private BulkOperations buyerWrites;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(lastLoginRecorder, "maxPending", 100);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Artisan.class)).thenReturn(artisanWrites);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Buyer.class)).thenReturn(buyerWrites);
+    }
+
+    @Test
+    void testRepeatedLoginsAreCoalesced() {
+        LocalDateTime first = LocalDateTime.of(2024, 1, 1, 10, 0);
+        lastLoginRecorder.record("artisan-id", UserType.ARTISAN, first);
+        lastLoginRecorder.record("artisan-id", UserType.ARTISAN, first.plusMinutes(5));
+        lastLoginRecorder.record("buyer-id", UserType.BUYER, first);
+
+        lastLoginRecorder.flush();
+
+        verify(artisanWrites, times(1)).updateOne(any(Query.class),
+                eq(new Update().max("lastLoginDate", first.plusMinutes(5))));
+        verify(artisanWrites, times(1)).execute();
+        verify(buyerWrites, times(1)).updateOne(any(Query.class), any(Update.class));
+        verify(buyerWrites, times(1)).execute();
+        assertEquals(0, lastLoginRecorder.pendingCount());
+    }
+
+    @Test
+    void testFailedFlushIsRequeued() {
+        when(artisanWrites.execute()).thenThrow(new RuntimeException("Mongo unavailable"));
+        lastLoginRecorder.record("artisan-id", UserType.ARTISAN, LocalDateTime.now());
+
+        lastLoginRecorder.flush();
+
+        assertEquals(1, lastLoginRecorder.pendingCount());
+    }
+
+    @Test
+    void testFullBufferDropsNewUsersWithoutWriting() {
+        ReflectionTestUtils.setField(lastLoginRecorder, "maxPending", 2);
+        LocalDateTime now = LocalDateTime.now();
+        lastLoginRecorder.record("artisan-1", UserType.ARTISAN, now);
+        lastLoginRecorder.record("artisan-2", UserType.ARTISAN, now);
+
+        lastLoginRecorder.record("artisan-3", UserType.ARTISAN, now);
+        lastLoginRecorder.record("artisan-1", UserType.ARTISAN, now.plusMinutes(1));
+
+        assertEquals(2, lastLoginRecorder.pendingCount());
+        assertEquals(1, meterRegistry.counter("last.login.dropped").count());
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void testRequeueAfterFailedFlushStaysBounded() {
+        ReflectionTestUtils.setField(lastLoginRecorder, "maxPending", 2);
+        LocalDateTime now = LocalDateTime.now();
+        lastLoginRecorder.record("artisan-1", UserType.ARTISAN, now);
+        lastLoginRecorder.record("artisan-2", UserType.ARTISAN, now);
+
+        // Logins arriving while the flush fails take part of the buffer
+        doAnswer(invocation -> {
+            lastLoginRecorder.record("artisan-3", UserType.ARTISAN, now);
+            throw new RuntimeException("Mongo unavailable");
+        }).when(artisanWrites).execute();
+        lastLoginRecorder.flush();
+
+        assertEquals(2, lastLoginRecorder.pendingCount());
+        assertEquals(1, meterRegistry.counter("last.login.dropped").count());
+    }
+
+    @Test
+    void testFlushWithNothingPendingSkipsMongo() {
+        lastLoginRecorder.flush();
+
+        verifyNoInteractions(mongoTemplate);
+    }
+}
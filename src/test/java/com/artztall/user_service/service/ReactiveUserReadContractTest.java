@@ -0,0 +1,29 @@
+package com.artztall.user_service.service;
+
+import com.artztall.user_service.dto.ArtisanDTO;
+import com.artztall.user_service.dto.BuyerDTO;
+import com.artztall.user_service.model.WishListItem;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+
+class ReactiveUserReadContractTest extends AbstractUserReadContractTest {
+
+    @Autowired
+    private ReactiveUserReadService readService;
+
+    @Override
+    protected ArtisanDTO getArtisanById(String id) {
+        return readService.getArtisanById(id).block();
+    }
+
+    @Override
+    protected BuyerDTO getBuyerById(String id) {
+        return readService.getBuyerById(id).block();
+    }
+
+    @Override
+    protected List<WishListItem> getWishlist(String buyerId) {
+        return readService.getWishlist(buyerId).collectList().block();
+    }
+}
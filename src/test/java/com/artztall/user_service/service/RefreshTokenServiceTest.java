@@ -0,0 +1,104 @@
+package com.artztall.user_service.service;
+
+import com.artztall.user_service.exception.InvalidTokenException;
+import com.artztall.user_service.model.Artisan;
+import com.artztall.user_service.model.RefreshTokenRecord;
+import com.artztall.user_service.model.UserType;
+import com.artztall.user_service.repository.RefreshTokenRepository;
+import com.artztall.user_service.security.JwtPrincipal;
+import com.artztall.user_service.security.JwtTokenProvider;
+import com.artztall.user_service.security.TokenRevocationRegistry;
+import com.artztall.user_service.security.UserDetailsImpl;
+import com.mongodb.client.result.DeleteResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class RefreshTokenServiceTest {
+
+    @InjectMocks
+    private RefreshTokenService refreshTokenService;
+
+    @Mock
+    private JwtTokenProvider tokenProvider;
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Mock
+    private TokenRevocationRegistry revocationRegistry;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private JwtPrincipal principal;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        principal = new JwtPrincipal("user@example.com", "user-id", "ROLE_BUYER",
+                Instant.now(), Instant.now().plusSeconds(3600), "token-id");
+    }
+
+    @Test
+    void testIssueRecordsToken() {
+        Artisan artisan = new Artisan();
+        artisan.setId("user-id");
+        artisan.setUserType(UserType.ARTISAN);
+        UserDetailsImpl userDetails = new UserDetailsImpl(artisan);
+        Instant expiresAt = Instant.now().plusSeconds(3600);
+        when(tokenProvider.generateRefreshToken(userDetails))
+                .thenReturn(new JwtTokenProvider.IssuedToken("refresh_token", "token-id", expiresAt));
+
+        assertEquals("refresh_token", refreshTokenService.issue(userDetails));
+        verify(refreshTokenRepository, times(1)).save(new RefreshTokenRecord("token-id", "user-id", expiresAt));
+    }
+
+    @Test
+    void testConsumeDeletesRecord() {
+        when(tokenProvider.parseRefreshToken("refresh_token")).thenReturn(Optional.of(principal));
+        when(mongoTemplate.remove(any(Query.class), eq(RefreshTokenRecord.class))).thenReturn(DeleteResult.acknowledged(1));
+
+        assertEquals(principal, refreshTokenService.consume("refresh_token"));
+        verify(revocationRegistry, never()).revokeUser(any());
+    }
+
+    @Test
+    void testConsumeReusedTokenRevokesAllSessions() {
+        when(tokenProvider.parseRefreshToken("refresh_token")).thenReturn(Optional.of(principal));
+        when(mongoTemplate.remove(any(Query.class), eq(RefreshTokenRecord.class))).thenReturn(DeleteResult.acknowledged(0));
+
+        assertThrows(InvalidTokenException.class, () -> refreshTokenService.consume("refresh_token"));
+        verify(refreshTokenRepository, times(1)).deleteByUserId("user-id");
+        verify(revocationRegistry, times(1)).revokeUser("user-id");
+    }
+
+    @Test
+    void testConsumeRejectsInvalidToken() {
+        when(tokenProvider.parseRefreshToken("access_token")).thenReturn(Optional.empty());
+
+        assertThrows(InvalidTokenException.class, () -> refreshTokenService.consume("access_token"));
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void testConsumeRejectsRevokedToken() {
+        when(tokenProvider.parseRefreshToken("refresh_token")).thenReturn(Optional.of(principal));
+        when(revocationRegistry.isRevoked(principal)).thenReturn(true);
+
+        assertThrows(InvalidTokenException.class, () -> refreshTokenService.consume("refresh_token"));
+        verifyNoInteractions(mongoTemplate);
+    }
+}
@@ -0,0 +1,94 @@
+package com.artztall.user_service.service;
+
+import com.artztall.user_service.model.Artisan;
+import com.artztall.user_service.model.BaseUser;
+import com.artztall.user_service.model.Buyer;
+import com.artztall.user_service.model.UserDirectoryEntry;
+import com.artztall.user_service.model.UserType;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataMongoTest(properties = "de.flapdoodle.mongodb.embedded.version=7.0.12")
+@Import(UserDirectoryService.class)
+class UserDirectoryBackfillTest {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private UserDirectoryService userDirectoryService;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate.remove(new Query(), Artisan.class);
+        mongoTemplate.remove(new Query(), Buyer.class);
+        mongoTemplate.remove(new Query(), mongoTemplate.getCollectionName(BaseUser.class));
+        mongoTemplate.remove(new Query(), UserDirectoryEntry.class);
+    }
+
+    @Test
+    void testEmailInSeveralCollectionsResolvesToTheArtisanFirst() {
+        Artisan artisan = mongoTemplate.insert(artisan("shared@example.com"));
+        mongoTemplate.insert(buyer("shared@example.com"));
+        Buyer buyer = mongoTemplate.insert(buyer("buyer@example.com"));
+
+        assertEquals(3, userDirectoryService.backfill(1));
+
+        assertEquals(new UserDirectoryEntry("shared@example.com", artisan.getId(), UserType.ARTISAN, true),
+                mongoTemplate.findById("shared@example.com", UserDirectoryEntry.class));
+        assertEquals(new UserDirectoryEntry("buyer@example.com", buyer.getId(), UserType.BUYER, true),
+                mongoTemplate.findById("buyer@example.com", UserDirectoryEntry.class));
+    }
+
+    @Test
+    void testAdminEmailsStayTakenWithoutTheLegacyFallback() {
+        mongoTemplate.insert(new Document("email", "admin@example.com")
+                        .append("userType", UserType.ADMIN.name())
+                        .append("isActive", true),
+                mongoTemplate.getCollectionName(BaseUser.class));
+
+        userDirectoryService.backfill(500);
+        ReflectionTestUtils.setField(userDirectoryService, "legacyFallback", false);
+
+        assertTrue(userDirectoryService.isEmailTaken("admin@example.com"));
+        assertEquals(UserType.ADMIN,
+                mongoTemplate.findById("admin@example.com", UserDirectoryEntry.class).getUserType());
+    }
+
+    @Test
+    void testRerunRefreshesExistingEntries() {
+        Artisan artisan = mongoTemplate.insert(artisan("artisan@example.com"));
+        userDirectoryService.backfill(500);
+
+        artisan.setActive(false);
+        mongoTemplate.save(artisan);
+        userDirectoryService.backfill(500);
+
+        assertFalse(mongoTemplate.findById("artisan@example.com", UserDirectoryEntry.class).isActive());
+    }
+
+    private static Artisan artisan(String email) {
+        Artisan artisan = new Artisan();
+        artisan.setEmail(email);
+        artisan.setUserType(UserType.ARTISAN);
+        artisan.setActive(true);
+        return artisan;
+    }
+
+    private static Buyer buyer(String email) {
+        Buyer buyer = new Buyer();
+        buyer.setEmail(email);
+        buyer.setUserType(UserType.BUYER);
+        buyer.setActive(true);
+        return buyer;
+    }
+}
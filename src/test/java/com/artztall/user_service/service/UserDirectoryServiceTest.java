@@ -0,0 +1,110 @@
+package com.artztall.user_service.service;
+
+import com.artztall.user_service.model.BaseUser;
+import com.artztall.user_service.model.Buyer;
+import com.artztall.user_service.model.UserDirectoryEntry;
+import com.artztall.user_service.model.UserType;
+import com.artztall.user_service.repository.ArtisanRepository;
+import com.artztall.user_service.repository.BuyerRepository;
+import com.artztall.user_service.repository.UserDirectoryRepository;
+import com.artztall.user_service.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class UserDirectoryServiceTest {
+
+    @InjectMocks
+    private UserDirectoryService userDirectoryService;
+
+    @Mock
+    private UserDirectoryRepository userDirectoryRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ArtisanRepository artisanRepository;
+
+    @Mock
+    private BuyerRepository buyerRepository;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private Buyer buyer;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(userDirectoryService, "legacyFallback", true);
+
+        buyer = new Buyer();
+        buyer.setId("buyer-id");
+        buyer.setEmail("buyer@example.com");
+        buyer.setUserType(UserType.BUYER);
+        buyer.setActive(true);
+    }
+
+    @Test
+    void testFindUserByEmail_DirectoryHitGoesStraightToCollection() {
+        when(userDirectoryRepository.findById("buyer@example.com"))
+                .thenReturn(Optional.of(new UserDirectoryEntry("buyer@example.com", "buyer-id", UserType.BUYER, true)));
+        when(buyerRepository.findById("buyer-id")).thenReturn(Optional.of(buyer));
+
+        Optional<BaseUser> result = userDirectoryService.findUserByEmail("buyer@example.com");
+
+        assertTrue(result.isPresent());
+        assertEquals("buyer-id", result.get().getId());
+        verify(artisanRepository, never()).findByEmail(anyString());
+        verify(artisanRepository, never()).findById(anyString());
+    }
+
+    @Test
+    void testFindUserByEmail_MissFallsBackAndRegisters() {
+        when(userDirectoryRepository.findById("buyer@example.com")).thenReturn(Optional.empty());
+        when(artisanRepository.findByEmail("buyer@example.com")).thenReturn(Optional.empty());
+        when(buyerRepository.findByEmail("buyer@example.com")).thenReturn(Optional.of(buyer));
+
+        Optional<BaseUser> result = userDirectoryService.findUserByEmail("buyer@example.com");
+
+        assertTrue(result.isPresent());
+        verify(userDirectoryRepository, times(1)).save(any(UserDirectoryEntry.class));
+    }
+
+    @Test
+    void testRegister_InsertsSoDuplicatesFail() {
+        userDirectoryService.register(buyer);
+
+        verify(userDirectoryRepository, times(1)).insert(any(UserDirectoryEntry.class));
+        verify(userDirectoryRepository, never()).save(any(UserDirectoryEntry.class));
+    }
+
+    @Test
+    void testFindUserByEmail_MissWithoutFallback() {
+        ReflectionTestUtils.setField(userDirectoryService, "legacyFallback", false);
+        when(userDirectoryRepository.findById("buyer@example.com")).thenReturn(Optional.empty());
+
+        assertTrue(userDirectoryService.findUserByEmail("buyer@example.com").isEmpty());
+        verifyNoInteractions(artisanRepository, buyerRepository);
+    }
+
+    @Test
+    void testIsEmailTaken_DirectoryHitSkipsCollections() {
+        when(userDirectoryRepository.existsById("buyer@example.com")).thenReturn(true);
+
+        assertTrue(userDirectoryService.isEmailTaken("buyer@example.com"));
+        verifyNoInteractions(userRepository, artisanRepository, buyerRepository);
+    }
+}
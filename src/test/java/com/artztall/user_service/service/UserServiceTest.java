@@ -2,13 +2,25 @@ package com.artztall.user_service.service;
 
 import com.artztall.user_service.dto.ArtisanDTO;
 import com.artztall.user_service.dto.BuyerDTO;
+import com.artztall.user_service.dto.CursorPage;
 import com.artztall.user_service.dto.UpdateArtisanRequest;
 import com.artztall.user_service.dto.UpdateBuyerRequest;
+import com.artztall.user_service.dto.UserLookupResult;
+import com.artztall.user_service.exception.InvalidCursorException;
+import com.artztall.user_service.exception.InvalidFieldSelectionException;
+import com.artztall.user_service.exception.LookupLimitExceededException;
 import com.artztall.user_service.model.Artisan;
 import com.artztall.user_service.model.Buyer;
 import com.artztall.user_service.model.WishListItem;
 import com.artztall.user_service.repository.ArtisanRepository;
+import com.artztall.user_service.repository.ArtisanView;
 import com.artztall.user_service.repository.BuyerRepository;
+import com.artztall.user_service.repository.BuyerView;
+import com.artztall.user_service.security.CustomUserDetailsService;
+import com.artztall.user_service.security.TokenRevocationRegistry;
+import com.artztall.user_service.util.CursorCodec;
+import org.bson.Document;
+import org.bson.types.ObjectId;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -16,12 +28,22 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-
-import java.util.ArrayList;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -37,9 +59,32 @@ class UserServiceTest {
     @Mock
     private BuyerRepository buyerRepository;
 
+    @Mock
+    private CustomUserDetailsService userDetailsService;
+
+    @Mock
+    private TokenRevocationRegistry revocationRegistry;
+
+    @Mock
+    private UserDirectoryService userDirectoryService;
+
+    @Mock
+    private WishlistService wishlistService;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private ArtisanSearchService artisanSearchService;
+
+    @Mock
+    private CategoryFacetIndex categoryFacetIndex;
+
     @Mock
     private Pageable pageable;
 
+    private final ProjectionFactory projections = new SpelAwareProxyProjectionFactory();
+
     private Artisan artisan;
     private Buyer buyer;
     private WishListItem wishListItem;
@@ -47,6 +92,7 @@ class UserServiceTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(userService, "maxLookupIds", 2);
 
         // Initialize test data
         artisan = new Artisan();
@@ -67,26 +113,27 @@ class UserServiceTest {
 
     @Test
     void testGetAllArtisans() {
-        Page<Artisan> artisanPage = new PageImpl<>(Arrays.asList(artisan));
-        when(artisanRepository.findAll(pageable)).thenReturn(artisanPage);
+        Page<ArtisanView> artisanPage = new PageImpl<>(Arrays.asList(projections.createProjection(ArtisanView.class, artisan)));
+        when(artisanRepository.findAllBy(pageable)).thenReturn(artisanPage);
 
         Page<ArtisanDTO> result = userService.getAllArtisans(pageable);
 
         assertNotNull(result);
         assertEquals(1, result.getTotalElements());
         assertEquals("Test Artisan", result.getContent().get(0).getName());
-        verify(artisanRepository, times(1)).findAll(pageable);
+        verify(artisanRepository, times(1)).findAllBy(pageable);
     }
 
     @Test
     void testGetArtisanById() {
-        when(artisanRepository.findById("artisan-id")).thenReturn(Optional.of(artisan));
+        when(artisanRepository.findViewById("artisan-id"))
+                .thenReturn(Optional.of(projections.createProjection(ArtisanView.class, artisan)));
 
         ArtisanDTO result = userService.getArtisanById("artisan-id");
 
         assertNotNull(result);
         assertEquals("Test Artisan", result.getName());
-        verify(artisanRepository, times(1)).findById("artisan-id");
+        verify(artisanRepository, times(1)).findViewById("artisan-id");
     }
 
     @Test
@@ -103,97 +150,163 @@ class UserServiceTest {
         assertEquals("Updated Artisan", result.getName());
         verify(artisanRepository, times(1)).findById("artisan-id");
         verify(artisanRepository, times(1)).save(artisan);
+        verify(userDetailsService, times(1)).evict("artisan@example.com");
+        verify(categoryFacetIndex, times(1)).upsert(artisan);
+    }
+
+    @Test
+    void testDeactivateArtisan() {
+        artisan.setActive(true);
+
+        when(artisanRepository.findById("artisan-id")).thenReturn(Optional.of(artisan));
+        when(artisanRepository.save(artisan)).thenReturn(artisan);
+
+        userService.deactivateArtisan("artisan-id");
+
+        assertFalse(artisan.isActive());
+        verify(userDirectoryService, times(1)).setActive("artisan@example.com", false);
+        verify(userDetailsService, times(1)).evict("artisan@example.com");
+        verify(revocationRegistry, times(1)).revokeUser("artisan-id");
+        verify(categoryFacetIndex, times(1)).remove("artisan-id");
+    }
+
+    @Test
+    void testGetArtisansPage_ReturnsCursorWhenMoreArtisansExist() {
+        artisan.setJoinDate(LocalDateTime.of(2024, 1, 1, 10, 0));
+        Artisan newer = new Artisan();
+        newer.setId("newer-id");
+        newer.setJoinDate(LocalDateTime.of(2024, 2, 1, 10, 0));
+        when(mongoTemplate.find(any(Query.class), eq(Artisan.class))).thenReturn(List.of(artisan, newer));
+
+        CursorPage<ArtisanDTO> result = userService.getArtisansPage(null, 1, Sort.Direction.ASC);
+
+        assertEquals(1, result.getContent().size());
+        assertTrue(result.isHasNext());
+        assertArrayEquals(new String[]{"ASC", "2024-01-01T10:00", "artisan-id"},
+                CursorCodec.decode(result.getNextCursor(), 3));
+    }
+
+    @Test
+    void testGetBuyersPage_RejectsCursorFromOtherDirection() {
+        String descendingCursor = CursorCodec.encode("DESC", "", "buyer-id");
+
+        assertThrows(InvalidCursorException.class,
+                () -> userService.getBuyersPage(descendingCursor, 10, Sort.Direction.ASC));
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void testLookupArtisans() {
+        when(mongoTemplate.find(any(Query.class), eq(Artisan.class))).thenReturn(List.of(artisan));
+
+        Map<String, UserLookupResult<ArtisanDTO>> result =
+                userService.lookupArtisans(List.of("artisan-id", "missing-id", "artisan-id"));
+
+        assertEquals(List.of("artisan-id", "missing-id"), List.copyOf(result.keySet()));
+        assertTrue(result.get("artisan-id").isFound());
+        assertEquals("Test Artisan", result.get("artisan-id").getUser().getName());
+        assertFalse(result.get("missing-id").isFound());
+        verify(mongoTemplate, times(1)).find(any(Query.class), eq(Artisan.class));
+    }
+
+    @Test
+    void testLookupBuyers_TooManyIds() {
+        assertThrows(LookupLimitExceededException.class,
+                () -> userService.lookupBuyers(List.of("a", "b", "c")));
+        verifyNoInteractions(mongoTemplate);
     }
 
     // Test Buyer Methods
 
     @Test
     void testGetAllBuyers() {
-        Page<Buyer> buyerPage = new PageImpl<>(Arrays.asList(buyer));
-        when(buyerRepository.findAll(pageable)).thenReturn(buyerPage);
+        Page<BuyerView> buyerPage = new PageImpl<>(Arrays.asList(projections.createProjection(BuyerView.class, buyer)));
+        when(buyerRepository.findAllBy(pageable)).thenReturn(buyerPage);
 
         Page<BuyerDTO> result = userService.getAllBuyers(pageable);
 
         assertNotNull(result);
         assertEquals(1, result.getTotalElements());
         assertEquals("Test Buyer", result.getContent().get(0).getName());
-        verify(buyerRepository, times(1)).findAll(pageable);
+        verify(buyerRepository, times(1)).findAllBy(pageable);
     }
 
     @Test
-    void testGetBuyerById() {
-        when(buyerRepository.findById("buyer-id")).thenReturn(Optional.of(buyer));
+    void testGetAllBuyers_SparseFields() {
+        Document document = new Document("_id", new ObjectId("65a1b2c3d4e5f60718293a4b")).append("name", "Test Buyer");
+        when(mongoTemplate.getCollectionName(Buyer.class)).thenReturn("buyers");
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq("buyers"))).thenReturn(List.of(document));
 
-        BuyerDTO result = userService.getBuyerById("buyer-id");
+        Page<Map<String, Object>> result = userService.getAllBuyers(PageRequest.of(0, 10), new LinkedHashSet<>(List.of("id", "name")));
 
-        assertNotNull(result);
-        assertEquals("Test Buyer", result.getName());
-        verify(buyerRepository, times(1)).findById("buyer-id");
+        assertEquals(Map.of("id", "65a1b2c3d4e5f60718293a4b", "name", "Test Buyer"), result.getContent().get(0));
+        assertEquals(1, result.getTotalElements());
+        verify(buyerRepository, never()).findAllBy(any(Pageable.class));
     }
 
     @Test
-    void testUpdateBuyer() {
-        UpdateBuyerRequest request = new UpdateBuyerRequest();
-        request.setName("Updated Buyer");
+    void testGetAllBuyers_SparseFieldsDeepPageUsesEstimatedCount() {
+        Document document = new Document("_id", new ObjectId("65a1b2c3d4e5f60718293a4b")).append("name", "Test Buyer");
+        when(mongoTemplate.getCollectionName(Buyer.class)).thenReturn("buyers");
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq("buyers"))).thenReturn(List.of(document));
+        when(mongoTemplate.estimatedCount(Buyer.class)).thenReturn(5001L);
 
-        when(buyerRepository.findById("buyer-id")).thenReturn(Optional.of(buyer));
-        when(buyerRepository.save(buyer)).thenReturn(buyer);
-
-        BuyerDTO result = userService.updateBuyer("buyer-id", request);
+        Page<Map<String, Object>> result = userService.getAllBuyers(PageRequest.of(500, 10), Set.of("name"));
 
-        assertNotNull(result);
-        assertEquals("Updated Buyer", result.getName());
-        verify(buyerRepository, times(1)).findById("buyer-id");
-        verify(buyerRepository, times(1)).save(buyer);
+        assertEquals(5001, result.getTotalElements());
+        verify(mongoTemplate, never()).count(any(Query.class), eq(Buyer.class));
     }
 
     @Test
-    void testAddItemToWishlist() {
-        // Ensure the wishlist is initialized
-        buyer.setWhishList(new ArrayList<>());
+    void testGetAllArtisans_UnknownField() {
+        assertThrows(InvalidFieldSelectionException.class,
+                () -> userService.getAllArtisans(PageRequest.of(0, 10), Set.of("password")));
+        verifyNoInteractions(mongoTemplate);
+    }
 
-        when(buyerRepository.findById("buyer-id")).thenReturn(Optional.of(buyer));
-        when(buyerRepository.save(buyer)).thenReturn(buyer);
+    @Test
+    void testGetBuyerById() {
+        when(buyerRepository.findViewById("buyer-id"))
+                .thenReturn(Optional.of(projections.createProjection(BuyerView.class, buyer)));
+        when(wishlistService.getWishlist("buyer-id")).thenReturn(List.of(wishListItem));
 
-        BuyerDTO result = userService.addItemToWishlist("buyer-id", wishListItem);
+        BuyerDTO result = userService.getBuyerById("buyer-id");
 
         assertNotNull(result);
+        assertEquals("Test Buyer", result.getName());
         assertEquals(1, result.getWishlist().size());
-        assertEquals("product-id", result.getWishlist().get(0).getProductId());
-        verify(buyerRepository, times(1)).findById("buyer-id");
-        verify(buyerRepository, times(1)).save(buyer);
+        verify(buyerRepository, times(1)).findViewById("buyer-id");
     }
 
-
     @Test
-    void testRemoveItemFromWishlist() {
-        // Use a mutable list instead of Arrays.asList
-        buyer.setWhishList(new ArrayList<>(List.of(wishListItem)));
+    void testUpdateBuyer() {
+        UpdateBuyerRequest request = new UpdateBuyerRequest();
+        request.setName("Updated Buyer");
 
         when(buyerRepository.findById("buyer-id")).thenReturn(Optional.of(buyer));
-        when(buyerRepository.save(any(Buyer.class))).thenReturn(buyer);
+        when(buyerRepository.save(buyer)).thenReturn(buyer);
 
-        BuyerDTO result = userService.removeItemFromWishlist("buyer-id", "product-id");
+        BuyerDTO result = userService.updateBuyer("buyer-id", request);
 
         assertNotNull(result);
-        assertFalse(result.getWishlist().stream()
-                .anyMatch(item -> "product-id".equals(item.getProductId())));
+        assertEquals("Updated Buyer", result.getName());
         verify(buyerRepository, times(1)).findById("buyer-id");
         verify(buyerRepository, times(1)).save(buyer);
+        verify(userDetailsService, times(1)).evict("buyer@example.com");
     }
 
-
     @Test
-    void testGetWishlist() {
-        buyer.setWhishList(Arrays.asList(wishListItem));
+    void testDeactivateBuyer() {
+        buyer.setActive(true);
 
         when(buyerRepository.findById("buyer-id")).thenReturn(Optional.of(buyer));
+        when(buyerRepository.save(buyer)).thenReturn(buyer);
 
-        List<WishListItem> result = userService.getWishlist("buyer-id");
+        userService.deactivateBuyer("buyer-id");
 
-        assertNotNull(result);
-        assertEquals(1, result.size());
-        assertEquals("product-id", result.get(0).getProductId());
-        verify(buyerRepository, times(1)).findById("buyer-id");
+        assertFalse(buyer.isActive());
+        verify(userDirectoryService, times(1)).setActive("buyer@example.com", false);
+        verify(userDetailsService, times(1)).evict("buyer@example.com");
+        verify(revocationRegistry, times(1)).revokeUser("buyer-id");
     }
 }
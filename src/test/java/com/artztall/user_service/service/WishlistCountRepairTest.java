@@ -0,0 +1,62 @@
+package com.artztall.user_service.service;
+
+import com.artztall.user_service.model.ProductWishlistCount;
+import com.artztall.user_service.model.WishlistEntry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataMongoTest(properties = "de.flapdoodle.mongodb.embedded.version=7.0.12")
+@Import(WishlistService.class)
+class WishlistCountRepairTest {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private WishlistService wishlistService;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate.remove(new Query(), WishlistEntry.class);
+        mongoTemplate.remove(new Query(), ProductWishlistCount.class);
+
+        LocalDateTime addedOn = LocalDateTime.of(2024, 1, 1, 10, 0);
+        mongoTemplate.insert(new WishlistEntry(null, "buyer-1", "product-1", addedOn, null));
+        mongoTemplate.insert(new WishlistEntry(null, "buyer-2", "product-1", addedOn, null));
+        mongoTemplate.insert(new WishlistEntry(null, "buyer-1", "product-2", addedOn, null));
+    }
+
+    @Test
+    void testWrongMissingAndStaleCountersAreRepaired() {
+        mongoTemplate.insert(new ProductWishlistCount("product-1", 5));
+        mongoTemplate.insert(new ProductWishlistCount("product-3", 2));
+
+        assertEquals(3, wishlistService.rebuildProductCounts());
+
+        assertEquals(2, count("product-1"));
+        assertEquals(1, count("product-2"));
+        assertNull(mongoTemplate.findById("product-3", ProductWishlistCount.class));
+    }
+
+    @Test
+    void testCorrectCountersAreLeftAlone() {
+        mongoTemplate.insert(new ProductWishlistCount("product-1", 2));
+        mongoTemplate.insert(new ProductWishlistCount("product-2", 1));
+
+        assertEquals(0, wishlistService.rebuildProductCounts());
+        assertEquals(2, count("product-1"));
+    }
+
+    private long count(String productId) {
+        return mongoTemplate.findById(productId, ProductWishlistCount.class).getCount();
+    }
+}
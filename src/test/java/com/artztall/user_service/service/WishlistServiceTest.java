@@ -0,0 +1,238 @@
+package com.artztall.user_service.service;
+
+import com.artztall.user_service.dto.CursorPage;
+import com.artztall.user_service.dto.WishlistOperation;
+import com.artztall.user_service.dto.WishlistOperationResult;
+import com.artztall.user_service.exception.InvalidCursorException;
+import com.artztall.user_service.model.ProductWishlistCount;
+import com.artztall.user_service.model.WishListItem;
+import com.artztall.user_service.model.WishlistEntry;
+import com.artztall.user_service.repository.BuyerRepository;
+import com.artztall.user_service.repository.ProductWishlistCountRepository;
+import com.artztall.user_service.repository.WishlistEntryRepository;
+import com.artztall.user_service.util.CursorCodec;
+import com.mongodb.client.result.DeleteResult;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.BsonObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class WishlistServiceTest {
+
+    @InjectMocks
+    private WishlistService wishlistService;
+
+    @Mock
+    private WishlistEntryRepository wishlistEntryRepository;
+
+    @Mock
+    private BuyerRepository buyerRepository;
+
+    @Mock
+    private ProductWishlistCountRepository productWishlistCountRepository;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private WishListItem wishListItem;
+    private WishlistEntry entry;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        wishListItem = new WishListItem();
+        wishListItem.setProductId("product-id");
+
+        entry = new WishlistEntry("entry-id", "buyer-id", "product-id", LocalDateTime.of(2024, 1, 1, 10, 0), null);
+    }
+
+    @Test
+    void testAddItem() {
+        when(buyerRepository.existsById("buyer-id")).thenReturn(true);
+        when(mongoTemplate.upsert(any(Query.class), any(UpdateDefinition.class), eq(WishlistEntry.class)))
+                .thenReturn(UpdateResult.acknowledged(0, 0L, new BsonObjectId()));
+
+        WishlistOperationResult result = wishlistService.addItem("buyer-id", wishListItem);
+
+        assertEquals("product-id", result.getProductId());
+        assertEquals(WishlistOperationResult.Status.ADDED, result.getStatus());
+        assertNotNull(wishListItem.getAddedOn());
+        verifyNoInteractions(wishlistEntryRepository);
+        verify(mongoTemplate, times(1)).upsert(any(Query.class), any(UpdateDefinition.class), eq(ProductWishlistCount.class));
+    }
+
+    @Test
+    void testAddItem_ConcurrentDuplicateIsIgnored() {
+        when(buyerRepository.existsById("buyer-id")).thenReturn(true);
+        when(mongoTemplate.upsert(any(Query.class), any(UpdateDefinition.class), eq(WishlistEntry.class)))
+                .thenThrow(new DuplicateKeyException("E11000"));
+
+        WishlistOperationResult result = wishlistService.addItem("buyer-id", wishListItem);
+
+        assertEquals(WishlistOperationResult.Status.ALREADY_PRESENT, result.getStatus());
+        verify(mongoTemplate, never()).upsert(any(Query.class), any(UpdateDefinition.class), eq(ProductWishlistCount.class));
+    }
+
+    @Test
+    void testAddItem_BuyerNotFound() {
+        when(buyerRepository.existsById("buyer-id")).thenReturn(false);
+
+        assertThrows(RuntimeException.class, () -> wishlistService.addItem("buyer-id", wishListItem));
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void testRemoveItem() {
+        when(buyerRepository.existsById("buyer-id")).thenReturn(true);
+        when(mongoTemplate.remove(any(Query.class), eq(WishlistEntry.class))).thenReturn(DeleteResult.acknowledged(1));
+
+        WishlistOperationResult result = wishlistService.removeItem("buyer-id", "product-id");
+
+        assertEquals(WishlistOperationResult.Status.REMOVED, result.getStatus());
+        verifyNoInteractions(wishlistEntryRepository);
+        verify(mongoTemplate, times(1)).remove(any(Query.class), eq(WishlistEntry.class));
+        verify(mongoTemplate, times(1)).upsert(any(Query.class), any(UpdateDefinition.class), eq(ProductWishlistCount.class));
+    }
+
+    @Test
+    void testRemoveItem_NotPresentLeavesCounterAlone() {
+        when(buyerRepository.existsById("buyer-id")).thenReturn(true);
+        when(mongoTemplate.remove(any(Query.class), eq(WishlistEntry.class))).thenReturn(DeleteResult.acknowledged(0));
+
+        WishlistOperationResult result = wishlistService.removeItem("buyer-id", "product-id");
+
+        assertEquals(WishlistOperationResult.Status.NOT_FOUND, result.getStatus());
+        verify(mongoTemplate, never()).upsert(any(Query.class), any(UpdateDefinition.class), eq(ProductWishlistCount.class));
+    }
+
+    @Test
+    void testGetProductWishlistCount() {
+        when(productWishlistCountRepository.findById("product-id"))
+                .thenReturn(Optional.of(new ProductWishlistCount("product-id", 42)));
+
+        assertEquals(42, wishlistService.getProductWishlistCount("product-id").getCount());
+        assertEquals(0, wishlistService.getProductWishlistCount("unknown").getCount());
+    }
+
+    @Test
+    void testGetBuyersWithProduct() {
+        WishlistEntry other = new WishlistEntry("entry-2", "buyer-2", "product-id", null, null);
+        when(mongoTemplate.find(any(Query.class), eq(WishlistEntry.class))).thenReturn(List.of(entry, other));
+
+        CursorPage<String> page = wishlistService.getBuyersWithProduct("product-id", null, 1);
+
+        assertEquals(List.of("buyer-id"), page.getContent());
+        assertTrue(page.isHasNext());
+        assertEquals("buyer-id", CursorCodec.decode(page.getNextCursor(), 1)[0]);
+    }
+
+    @Test
+    void testGetWishlistPage_ReturnsCursorWhenMoreItemsExist() {
+        WishlistEntry second = new WishlistEntry("entry-2", "buyer-id", "product-2", LocalDateTime.of(2024, 1, 2, 10, 0), null);
+        when(mongoTemplate.find(any(Query.class), eq(WishlistEntry.class))).thenReturn(List.of(entry, second));
+
+        CursorPage<WishListItem> page = wishlistService.getWishlistPage("buyer-id", null, 1, Sort.Direction.ASC);
+
+        assertEquals(1, page.getContent().size());
+        assertEquals("product-id", page.getContent().get(0).getProductId());
+        assertTrue(page.isHasNext());
+        assertArrayEquals(new String[]{"ASC", "2024-01-01T10:00", "entry-id"}, CursorCodec.decode(page.getNextCursor(), 3));
+    }
+
+    @Test
+    void testGetWishlistPage_RejectsCursorFromOtherDirection() {
+        String ascendingCursor = CursorCodec.encode("ASC", "2024-01-01T10:00", "entry-id");
+
+        assertThrows(InvalidCursorException.class,
+                () -> wishlistService.getWishlistPage("buyer-id", ascendingCursor, 2, Sort.Direction.DESC));
+    }
+
+    @Test
+    void testApplyBatch() {
+        BulkOperations itemWrites = mock(BulkOperations.class);
+        BulkOperations counterWrites = mock(BulkOperations.class);
+        when(buyerRepository.existsById("buyer-id")).thenReturn(true);
+        when(mongoTemplate.find(any(Query.class), eq(WishlistEntry.class))).thenReturn(List.of(entry));
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.ORDERED, WishlistEntry.class)).thenReturn(itemWrites);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ProductWishlistCount.class)).thenReturn(counterWrites);
+
+        List<WishlistOperationResult> result = wishlistService.applyBatch("buyer-id", List.of(
+                new WishlistOperation(WishlistOperation.Type.ADD, "product-id", null),
+                new WishlistOperation(WishlistOperation.Type.ADD, "other-product", null),
+                new WishlistOperation(WishlistOperation.Type.REMOVE, "other-product", null),
+                new WishlistOperation(WishlistOperation.Type.REMOVE, "product-id", null)
+        ));
+
+        assertEquals(List.of(
+                WishlistOperationResult.Status.ALREADY_PRESENT,
+                WishlistOperationResult.Status.ADDED,
+                WishlistOperationResult.Status.REMOVED,
+                WishlistOperationResult.Status.REMOVED
+        ), result.stream().map(WishlistOperationResult::getStatus).toList());
+        verify(itemWrites, times(1)).upsert(any(Query.class), any(Update.class));
+        verify(itemWrites, times(2)).remove(any(Query.class));
+        verify(itemWrites, times(1)).execute();
+        // other-product nets to zero, so only product-id's counter moves
+        verify(counterWrites, times(1)).upsert(any(Query.class), any(Update.class));
+        verify(counterWrites, times(1)).execute();
+    }
+
+    @Test
+    void testApplyBatch_NoChangesSkipsWrites() {
+        when(buyerRepository.existsById("buyer-id")).thenReturn(true);
+        when(mongoTemplate.find(any(Query.class), eq(WishlistEntry.class))).thenReturn(List.of());
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.ORDERED, WishlistEntry.class)).thenReturn(mock(BulkOperations.class));
+
+        List<WishlistOperationResult> result = wishlistService.applyBatch("buyer-id", List.of(
+                new WishlistOperation(WishlistOperation.Type.REMOVE, "product-id", null)
+        ));
+
+        assertEquals(WishlistOperationResult.Status.NOT_FOUND, result.get(0).getStatus());
+        verify(mongoTemplate, never()).bulkOps(BulkOperations.BulkMode.UNORDERED, ProductWishlistCount.class);
+    }
+
+    @Test
+    void testGetWishlist() {
+        when(wishlistEntryRepository.findByBuyerIdOrderByAddedOnAscIdAsc("buyer-id")).thenReturn(List.of(entry));
+
+        List<WishListItem> result = wishlistService.getWishlist("buyer-id");
+
+        assertEquals(1, result.size());
+        assertEquals("product-id", result.get(0).getProductId());
+    }
+
+    @Test
+    void testGetWishlist_EmptyForExistingBuyer() {
+        when(wishlistEntryRepository.findByBuyerIdOrderByAddedOnAscIdAsc("buyer-id")).thenReturn(List.of());
+        when(buyerRepository.existsById("buyer-id")).thenReturn(true);
+
+        assertTrue(wishlistService.getWishlist("buyer-id").isEmpty());
+    }
+
+    @Test
+    void testGetWishlist_BuyerNotFound() {
+        when(wishlistEntryRepository.findByBuyerIdOrderByAddedOnAscIdAsc("missing")).thenReturn(List.of());
+        when(buyerRepository.existsById("missing")).thenReturn(false);
+
+        RuntimeException ex = assertThrows(RuntimeException.class, () -> wishlistService.getWishlist("missing"));
+        assertEquals("Buyer not found", ex.getMessage());
+    }
+}